@@ -0,0 +1,50 @@
+package com.example.ecotrade.benchmark;
+
+import com.example.ecotrade.EcoTradeApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Boots the application against a private in-memory H2 database for one benchmark trial or load test run
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        return start(overrides, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides, WebApplicationType webApplicationType) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.hibernate.ddl-auto", "validate");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.ecotrade", "WARN");
+        properties.putAll(overrides);
+
+        // Passed as command line arguments, so they take precedence over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(EcoTradeApplication.class)
+                .web(webApplicationType)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    static ConfigurableApplicationContext start() {
+        return start(Map.of());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ecotrade.benchmark;
+
+import com.example.ecotrade.model.Order;
+import com.example.ecotrade.model.OrderItem;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.OrderRepository;
+import com.example.ecotrade.repository.ProductRepository;
+import com.example.ecotrade.repository.UserRepository;
+import com.example.ecotrade.service.PlantService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Seeds configurable data volumes through the repositories
+final class BenchmarkData {
+
+    private static final int BATCH = 500;
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final PlantService plantService;
+    private final TransactionTemplate transactionTemplate;
+
+    BenchmarkData(ApplicationContext context) {
+        this.productRepository = context.getBean(ProductRepository.class);
+        this.userRepository = context.getBean(UserRepository.class);
+        this.orderRepository = context.getBean(OrderRepository.class);
+        this.plantService = context.getBean(PlantService.class);
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    List<Product> createProducts(int count) {
+        List<Product> saved = new ArrayList<>(count);
+        List<Product> batch = new ArrayList<>(BATCH);
+        Product.ProductCategory[] categories = Product.ProductCategory.values();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Benchmark product " + i);
+            product.setDescription("Seeded product number " + i + " for service benchmarks");
+            product.setPrice(5.0 + (i % 50));
+            product.setEcoPointsCost(100 + i % 300);
+            product.setEcoPointsReward(10 + i % 40);
+            product.setStock(Integer.MAX_VALUE / 2);
+            product.setCategory(categories[i % categories.length]);
+            product.setIsPlant(product.getCategory() == Product.ProductCategory.PLANTS);
+            product.setImageUrl("/images/monstera.jpg");
+            batch.add(product);
+            if (batch.size() == BATCH) {
+                saved.addAll(productRepository.saveAll(batch));
+                batch.clear();
+            }
+        }
+        saved.addAll(productRepository.saveAll(batch));
+        return saved;
+    }
+
+    User createUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setFullName(name);
+        user.setUsername(name);
+        user.setEmail(name + "@benchmark.example.com");
+        user.setPassword("password");
+        user.setEcoPoints(1_000_000);
+        return userRepository.save(user);
+    }
+
+    void createOrders(User user, List<Product> products, int orderCount, int itemsPerOrder) {
+        List<Order> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < orderCount; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setTotalAmount(10.0 * itemsPerOrder);
+            order.setEcoPointsEarned(5);
+            for (int j = 0; j < itemsPerOrder; j++) {
+                Product product = products.get((i * itemsPerOrder + j) % products.size());
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setPrice(product.getPrice());
+                order.addItem(item);
+            }
+            batch.add(order);
+            if (batch.size() == BATCH) {
+                orderRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        orderRepository.saveAll(batch);
+    }
+
+    // Orders are saved around OrderService, so their plants are created here like the order outbox would
+    void materializePlants(User user) {
+        transactionTemplate.executeWithoutResult(status ->
+                orderRepository.findByUserIdWithItems(user.getId()).forEach(plantService::materializePlantsForOrder));
+    }
+}
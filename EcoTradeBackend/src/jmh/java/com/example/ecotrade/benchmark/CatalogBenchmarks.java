@@ -0,0 +1,94 @@
+package com.example.ecotrade.benchmark;
+
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.dto.ProductPageDTO;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.service.ProductCatalog;
+import com.example.ecotrade.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog reads served from the {@link ProductCatalog} snapshot ({@code snapshot=true}) against the
+ * JPA and product cache path ({@code snapshot=false}). Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per call. Full listings are serialized into a
+ * {@link Blackhole} element by element, as Jackson would, so lazily created DTOs are counted too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmarks {
+
+    @Param({"true", "false"})
+    public boolean snapshot;
+
+    @Param("1000")
+    public int productCount;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    private List<Product> products;
+    private int nextProduct;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of("ecotrade.catalog.snapshot.enabled", snapshot));
+        productService = context.getBean(ProductService.class);
+        products = new BenchmarkData(context).createProducts(productCount);
+        // Products were seeded around ProductService
+        context.getBean(ProductCatalog.class).reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void getAllProducts(Blackhole blackhole) {
+        for (ProductDTO product : productService.getAllProducts()) {
+            blackhole.consume(product);
+        }
+    }
+
+    @Benchmark
+    public void getPlants(Blackhole blackhole) {
+        for (ProductDTO product : productService.getPlants()) {
+            blackhole.consume(product);
+        }
+    }
+
+    @Benchmark
+    public ProductDTO getProductById() {
+        return productService.getProductById(products.get(nextProduct++ % products.size()).getId());
+    }
+
+    @Benchmark
+    public void getProductsPage(Blackhole blackhole) {
+        ProductPageDTO page = productService.getProductsPage(null, ProductService.DEFAULT_PAGE_SIZE);
+        for (ProductDTO product : page.getItems()) {
+            blackhole.consume(product);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ecotrade.benchmark;
+
+import com.example.ecotrade.repository.ProductRepository;
+import com.example.ecotrade.service.CatalogSnapshot;
+import com.example.ecotrade.service.ProductCatalog;
+import com.example.ecotrade.service.ProductService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Heap retained by the product catalog in each representation: the product entities JPA loads, the
+ * DTOs the product caches keep (without Caffeine's own entries) and the {@link CatalogSnapshot}.
+ * Each representation is loaded in a fresh application context, which is closed before measuring so
+ * the in-memory database no longer shares its strings; the retained size is how much the live objects in
+ * the JVM's class histogram shrink once the representation is dropped. Run with a fixed heap, e.g.
+ * {@code -Dfootprint.args="--products=100000"}. The snapshot's own estimate is printed as well.
+ */
+public final class CatalogFootprint {
+
+    // The representation being measured; a field, so the JIT cannot drop it while it is measured
+    private static Object held;
+
+    private CatalogFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        int productCount = 100_000;
+        for (String arg : args) {
+            if (arg.startsWith("--products=")) {
+                productCount = Integer.parseInt(arg.substring("--products=".length()));
+            }
+        }
+
+        Map<String, Function<ApplicationContext, Object>> representations = new LinkedHashMap<>();
+        representations.put("JPA entities", context -> context.getBean(ProductRepository.class).findAll());
+        representations.put("ProductDTOs", context -> context.getBean(ProductService.class).getAllProducts());
+        representations.put("CatalogSnapshot", context -> context.getBean(ProductCatalog.class).read());
+
+        System.out.printf("%-28s %14s %14s%n", "Representation", "Bytes", "Bytes/product");
+        for (Map.Entry<String, Function<ApplicationContext, Object>> representation : representations.entrySet()) {
+            // Catalog reads go through JPA, the snapshot is only read explicitly
+            try (ConfigurableApplicationContext context = BenchmarkContext.start(
+                    Map.of("ecotrade.catalog.snapshot.enabled", false))) {
+                new BenchmarkData(context).createProducts(productCount);
+                held = representation.getValue().apply(context);
+            }
+            long estimate = check(representation.getKey(), held, productCount);
+            long withRepresentation = liveBytes();
+            held = null;
+            long bytes = withRepresentation - liveBytes();
+            System.out.printf("%-28s %14d %14d%n", representation.getKey(), bytes, bytes / productCount);
+            if (estimate >= 0) {
+                System.out.printf("%-28s %14d %14d%n", representation.getKey() + " (estimate)", estimate,
+                        estimate / productCount);
+            }
+        }
+    }
+
+    // Returns the snapshot's own size estimate, -1 for the other representations
+    private static long check(String name, Object representation, int productCount) {
+        if (representation instanceof List<?> list && list.size() < productCount) {
+            throw new IllegalStateException(name + " loaded " + list.size() + " products");
+        }
+        return representation instanceof CatalogSnapshot snapshot ? snapshot.estimatedBytes() : -1;
+    }
+
+    // Bytes of all live objects, summed from the class histogram the JVM takes after a full GC. Filler
+    // arrays only pad the gaps left by dead objects and are not counted.
+    private static long liveBytes() throws Exception {
+        String histogram = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                new Object[] {new String[0]}, new String[] {String[].class.getName()});
+        long bytes = 0;
+        for (String line : histogram.lines().toList()) {
+            // "   1:   instances   bytes  class name (module)"
+            String[] columns = line.trim().split("\\s+");
+            if (columns.length >= 4 && columns[0].endsWith(":") && !columns[3].contains("FillerArray")) {
+                bytes += Long.parseLong(columns[2]);
+            }
+        }
+        return bytes;
+    }
+}
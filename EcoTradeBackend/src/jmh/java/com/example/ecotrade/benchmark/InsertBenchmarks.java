@@ -0,0 +1,129 @@
+package com.example.ecotrade.benchmark;
+
+import com.example.ecotrade.JdbcExecutionCounter;
+import com.example.ecotrade.model.Order;
+import com.example.ecotrade.model.OrderItem;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.OrderRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts {@code orders * itemsPerOrder} (10k by default) OrderItem rows in one transaction, once per
+ * iteration. {@code batchSize=1} is the unbatched baseline with one INSERT per row; the
+ * {@code roundTrips} counter reports the JDBC executions (statements plus batches), summed over the
+ * measurement iterations: 10100 per run unbatched against 202 with batches of 50.
+ *
+ * <p>The in-memory H2 database has no network round trips, so it mostly shows the statement count.
+ * For timings that include the round trips, run against a scratch MySQL database with
+ * {@code -jvmArgsAppend -Dbench.datasource.url=jdbc:mysql://...&rewriteBatchedStatements=true}
+ * (plus {@code bench.datasource.username} / {@code bench.datasource.password}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class InsertBenchmarks {
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param("100")
+    public int orders;
+
+    @Param("100")
+    public int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+
+    private List<Product> products;
+    private User user;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long roundTrips;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            roundTrips = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("spring.jpa.properties.hibernate.jdbc.batch_size", batchSize);
+        overrides.put("spring.jpa.properties.hibernate.session.events.auto", JdbcExecutionCounter.class.getName());
+        String url = System.getProperty("bench.datasource.url");
+        if (url != null) {
+            overrides.put("spring.datasource.url", url);
+            overrides.put("spring.datasource.driver-class-name", "");
+            overrides.put("spring.jpa.properties.hibernate.dialect", "");
+            overrides.put("spring.datasource.username", System.getProperty("bench.datasource.username", "root"));
+            overrides.put("spring.datasource.password", System.getProperty("bench.datasource.password", ""));
+        }
+
+        context = BenchmarkContext.start(overrides);
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        BenchmarkData data = new BenchmarkData(context);
+        products = data.createProducts(100);
+        user = data.createUser("bench-inserter-" + System.nanoTime());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insertOrderItems(RoundTrips counters) {
+        List<Order> batch = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setTotalAmount(10.0 * itemsPerOrder);
+            for (int j = 0; j < itemsPerOrder; j++) {
+                Product product = products.get(j % products.size());
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setPrice(product.getPrice());
+                order.addItem(item);
+            }
+            batch.add(order);
+        }
+
+        long before = JdbcExecutionCounter.roundTrips();
+        int saved = transactionTemplate.execute(status -> orderRepository.saveAll(batch).size());
+        counters.roundTrips += JdbcExecutionCounter.roundTrips() - before;
+        return saved;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.ecotrade.benchmark;
+
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load test comparing Tomcat's platform thread pool with virtual-thread request
+ * handling. For each mode it boots the application on a random port, seeds users with orders and
+ * plants, and lets {@code --clients} concurrent clients (2000 by default) call
+ * {@code /api/orders/user/{id}} and {@code /api/plants/user/{id}/orders} back to back. Requests
+ * completed during the warmup are discarded; throughput and latency percentiles are reported for
+ * the measurement window.
+ *
+ * <p>Options: {@code --clients}, {@code --duration} and {@code --warmup} (seconds),
+ * {@code --modes=platform,virtual}, {@code --users}, {@code --orders-per-user} and
+ * {@code --pool-size} (Hikari maximum pool size). The in-memory H2 database never waits on I/O, so
+ * against it the modes differ mostly in scheduling overhead; to see the effect of blocking JDBC
+ * calls, point it at a scratch MySQL database with {@code --datasource-url=jdbc:mysql://...}
+ * (plus {@code --datasource-username} / {@code --datasource-password}). The run is started
+ * with {@code -Djdk.tracePinnedThreads=short}, so any virtual thread that blocks while pinned to its
+ * carrier is printed with the offending frame.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools would relaunch main on a restart thread for every context started below
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> options = parseOptions(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "2000"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int users = Integer.parseInt(options.getOrDefault("users", "200"));
+        int ordersPerUser = Integer.parseInt(options.getOrDefault("orders-per-user", "10"));
+        String poolSize = options.getOrDefault("pool-size", "20");
+        String[] modes = options.getOrDefault("modes", "platform,virtual").split(",");
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            Map<String, Object> overrides = new HashMap<>();
+            overrides.put("server.port", 0);
+            if ("virtual".equals(mode.trim())) {
+                overrides.put("spring.profiles.active", "virtual-threads");
+            }
+            overrides.put("spring.datasource.hikari.maximum-pool-size", poolSize);
+            String url = options.get("datasource-url");
+            if (url != null) {
+                overrides.put("spring.datasource.url", url);
+                overrides.put("spring.datasource.driver-class-name", "");
+                overrides.put("spring.jpa.properties.hibernate.dialect", "");
+                overrides.put("spring.datasource.username", options.getOrDefault("datasource-username", "root"));
+                overrides.put("spring.datasource.password", options.getOrDefault("datasource-password", ""));
+            }
+
+            try (ConfigurableApplicationContext context = BenchmarkContext.start(overrides, WebApplicationType.SERVLET)) {
+                long[] userIds = seed(context, users, ordersPerUser);
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                System.out.printf("%s: %d clients, %ds warmup, %ds measurement%n", mode.trim(), clients, warmup, duration);
+                results.add(run(mode.trim(), baseUrl, userIds, clients, warmup, duration));
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-9s %8s %10s %8s %12s %8s %8s %8s%n",
+                "mode", "clients", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Result result : results) {
+            System.out.printf("%-9s %8d %10d %8d %12.1f %8.1f %8.1f %8.1f%n",
+                    result.mode(), result.clients(), result.requests(), result.errors(), result.throughput(),
+                    result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0));
+        }
+    }
+
+    private static long[] seed(ConfigurableApplicationContext context, int users, int ordersPerUser) {
+        BenchmarkData data = new BenchmarkData(context);
+
+        List<Product> products = data.createProducts(100);
+        long[] userIds = new long[users];
+        for (int i = 0; i < users; i++) {
+            User user = data.createUser("load-" + System.nanoTime() + "-" + i);
+            data.createOrders(user, products, ordersPerUser, 3);
+            data.materializePlants(user);
+            userIds[i] = user.getId();
+        }
+        return userIds;
+    }
+
+    private static Result run(String mode, String baseUrl, long[] userIds, int clients, int warmup, int duration)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+        long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+        Recorder[] recorders = new Recorder[clients];
+
+        // The clients run on virtual threads, so the load generator itself is never short of threads
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .executor(httpExecutor)
+                     .build();
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Recorder recorder = new Recorder();
+                recorders[i] = recorder;
+                clientExecutor.submit(() -> runClient(http, baseUrl, userIds, recorder, measureFrom, measureUntil));
+            }
+            clientExecutor.shutdown();
+            clientExecutor.awaitTermination(warmup + duration + 120L, TimeUnit.SECONDS);
+        }
+
+        long errors = 0;
+        int count = 0;
+        for (Recorder recorder : recorders) {
+            errors += recorder.errors;
+            count += recorder.size;
+        }
+        long[] latencies = new long[count];
+        int offset = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(latencies);
+        return new Result(mode, clients, count, errors, count / (double) duration, latencies);
+    }
+
+    private static void runClient(HttpClient http, String baseUrl, long[] userIds, Recorder recorder,
+                                  long measureFrom, long measureUntil) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= measureUntil) {
+                return;
+            }
+            long userId = userIds[random.nextInt(userIds.length)];
+            String path = random.nextBoolean() ? "/api/orders/user/" + userId : "/api/plants/user/" + userId + "/orders";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            boolean ok;
+            try {
+                ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= measureUntil) {
+                if (ok) {
+                    recorder.record(end - start);
+                } else {
+                    recorder.errors++;
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    // Written by a single client thread and read after the executor has terminated
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+    }
+
+    private record Result(String mode, int clients, int requests, long errors, double throughput, long[] latencies) {
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
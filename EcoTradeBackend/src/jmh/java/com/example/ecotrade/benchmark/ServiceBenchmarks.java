@@ -0,0 +1,129 @@
+package com.example.ecotrade.benchmark;
+
+import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.dto.OrderItemDTO;
+import com.example.ecotrade.dto.PlantDTO;
+import com.example.ecotrade.dto.PlasticSubmissionDTO;
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.service.OrderService;
+import com.example.ecotrade.service.PlantService;
+import com.example.ecotrade.service.PlasticSubmissionService;
+import com.example.ecotrade.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths against an in-memory H2 database. Data volumes are JMH parameters,
+ * e.g. {@code -Djmh.args="-p productCount=10000 -p ordersPerUser=1000 -rf json"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmarks {
+
+    @Param("1000")
+    public int productCount;
+
+    @Param("200")
+    public int ordersPerUser;
+
+    @Param("3")
+    public int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private PlantService plantService;
+    private ProductService productService;
+    private PlasticSubmissionService plasticSubmissionService;
+
+    private List<Product> products;
+    private User reader;
+    private User writer;
+    private int nextProduct;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        orderService = context.getBean(OrderService.class);
+        plantService = context.getBean(PlantService.class);
+        productService = context.getBean(ProductService.class);
+        plasticSubmissionService = context.getBean(PlasticSubmissionService.class);
+
+        BenchmarkData data = new BenchmarkData(context);
+        products = data.createProducts(productCount);
+        reader = data.createUser("bench-reader");
+        writer = data.createUser("bench-writer");
+        data.createOrders(reader, products, ordersPerUser, itemsPerOrder);
+        data.materializePlants(reader);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO createOrder() {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setUserId(writer.getId());
+        orderDTO.setTotalAmount(10.0 * itemsPerOrder);
+        orderDTO.setEcoPointsEarned(5);
+        orderDTO.setEcoPointsUsed(0);
+        orderDTO.setUsePlastic(false);
+        for (int i = 0; i < itemsPerOrder; i++) {
+            Product product = products.get(nextProduct++ % products.size());
+            OrderItemDTO item = new OrderItemDTO();
+            item.setProductId(product.getId());
+            item.setQuantity(1);
+            item.setPrice(product.getPrice());
+            orderDTO.getItems().add(item);
+        }
+        return orderService.createOrder(orderDTO);
+    }
+
+    // Dominated by OrderService.convertToDTO for every order and item of the user
+    @Benchmark
+    public List<OrderDTO> convertOrdersToDTO() {
+        return orderService.getOrdersByUserId(reader.getId());
+    }
+
+    @Benchmark
+    public List<PlantDTO> getPlantsFromUserOrders() {
+        return plantService.getPlantsFromUserOrders(reader.getId());
+    }
+
+    @Benchmark
+    public List<ProductDTO> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @Benchmark
+    public PlasticSubmissionDTO createSubmission() {
+        PlasticSubmissionDTO submissionDTO = new PlasticSubmissionDTO();
+        submissionDTO.setUserId(writer.getId());
+        submissionDTO.setWeight(1.5);
+        submissionDTO.setPlasticType("PET");
+        submissionDTO.setLocation("Benchmark drop-off");
+        return plasticSubmissionService.createSubmission(submissionDTO);
+    }
+}
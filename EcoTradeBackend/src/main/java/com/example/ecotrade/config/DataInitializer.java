@@ -8,6 +8,7 @@ import com.example.ecotrade.repository.PlantRepository;
 import com.example.ecotrade.repository.PlasticSubmissionRepository;
 import com.example.ecotrade.repository.ProductRepository;
 import com.example.ecotrade.repository.UserRepository;
+import com.example.ecotrade.service.UserSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +26,9 @@ public class DataInitializer {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserSummaryService userSummaryService;
+
     @Bean
     public CommandLineRunner initData(UserRepository userRepository,
                                      ProductRepository productRepository,
@@ -247,6 +251,9 @@ public class DataInitializer {
                     Arrays.asList(submission1, submission2, submission3)
             );
             System.out.println("Initialized plastic submissions: " + submissions.size());
+
+            // The sample data is saved through the repositories, so build its dashboard summaries in one pass
+            userSummaryService.rebuildAll();
         };
     }
     
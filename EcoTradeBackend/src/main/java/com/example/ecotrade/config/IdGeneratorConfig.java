@@ -0,0 +1,23 @@
+package com.example.ecotrade.config;
+
+import com.example.ecotrade.repository.IdBlockAllocator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    // Small pool of its own, so reserving an id block never competes with the application's transactions
+    @Bean
+    public IdBlockAllocator idBlockAllocator(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("id-allocator");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMinimumIdle(0);
+        return new IdBlockAllocator(dataSource);
+    }
+}
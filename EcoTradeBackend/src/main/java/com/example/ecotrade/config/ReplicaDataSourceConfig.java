@@ -0,0 +1,56 @@
+package com.example.ecotrade.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Sends read-only transactions to a replica pool when ecotrade.datasource.replica.url is set.
+// The lazy proxy hands out a placeholder connection and only picks the real pool on the first
+// statement, after the transaction has marked the connection read-only.
+@Configuration
+@ConditionalOnProperty(name = "ecotrade.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties,
+                                              @Value("${ecotrade.datasource.replica.url}") String url,
+                                              @Value("${ecotrade.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${ecotrade.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${ecotrade.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routingDataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routingDataSource.setReadOnlyDataSource(replicaDataSource);
+        return routingDataSource;
+    }
+}
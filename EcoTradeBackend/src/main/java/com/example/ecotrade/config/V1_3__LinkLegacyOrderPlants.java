@@ -0,0 +1,97 @@
+package com.example.ecotrade.config;
+
+import com.example.ecotrade.model.Order;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// One-off migration after V1_2 added plants.order_item_id. Before that, plants of an order were created
+// while reading the user's order plants and matched back by "Order #id" in their name. This links those
+// plants to their order items and creates the ones that were never read, for orders that reached
+// ecotrade.plants.materialize-on-status and were not cancelled, like OrderEventHandler does. It runs
+// before V3 and V4, so the new plants take AUTO_INCREMENT ids and are counted in the summary backfill.
+// Spring Boot hands Flyway this bean; it only uses the migration's own connection.
+@Component
+public class V1_3__LinkLegacyOrderPlants extends BaseJavaMigration {
+
+    private final Order.OrderStatus materializationStatus;
+
+    public V1_3__LinkLegacyOrderPlants(
+            @Value("${ecotrade.plants.materialize-on-status:PENDING}") Order.OrderStatus materializationStatus) {
+        this.materializationStatus = materializationStatus;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        linkOrderPlants(new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true)));
+    }
+
+    // Returns the number of plants linked or created
+    int linkOrderPlants(JdbcTemplate jdbcTemplate) {
+        List<String> statuses = Arrays.stream(Order.OrderStatus.values())
+                .filter(status -> status != Order.OrderStatus.CANCELLED
+                        && status.ordinal() >= materializationStatus.ordinal())
+                .map(Enum::name)
+                .collect(Collectors.toList());
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+
+        String placeholders = String.join(", ", statuses.stream().map(status -> "?").toList());
+        List<Map<String, Object>> items = jdbcTemplate.queryForList(
+                "select i.id item_id, i.quantity, o.id order_id, o.user_id, o.order_date, o.use_plastic, "
+                        + "p.id product_id, p.name, p.description, p.image_url "
+                        + "from order_items i join orders o on o.id = i.order_id join products p on p.id = i.product_id "
+                        + "where p.is_plant = true and o.status in (" + placeholders + ") "
+                        + "and not exists (select pl.id from plants pl where pl.order_item_id = i.id) order by i.id",
+                statuses.toArray());
+
+        int linked = 0;
+        for (Map<String, Object> item : items) {
+            long itemId = ((Number) item.get("item_id")).longValue();
+            long orderId = ((Number) item.get("order_id")).longValue();
+            int quantity = ((Number) item.get("quantity")).intValue();
+
+            List<Long> legacyPlants = jdbcTemplate.queryForList(
+                    "select id from plants where user_id = ? and product_id = ? and order_item_id is null "
+                            + "and name like ? order by id limit ?",
+                    Long.class, item.get("user_id"), item.get("product_id"), "%Order #" + orderId + ",%", quantity);
+            for (Long plantId : legacyPlants) {
+                jdbcTemplate.update("update plants set order_item_id = ? where id = ?", itemId, plantId);
+            }
+
+            Timestamp orderDate = (Timestamp) item.get("order_date");
+            for (int i = legacyPlants.size(); i < quantity; i++) {
+                jdbcTemplate.update("insert into plants (user_id, product_id, order_item_id, name, species, "
+                                + "planting_date, purchase_date, growth_stage, health_status, image_url) "
+                                + "values (?, ?, ?, ?, ?, ?, ?, 'Seedling', 'Good', ?)",
+                        item.get("user_id"), item.get("product_id"), itemId,
+                        plantName(item, orderId, orderDate, i, quantity), item.get("description"),
+                        LocalDate.now(), orderDate, item.get("image_url"));
+            }
+            linked += quantity;
+        }
+        return linked;
+    }
+
+    // Same name as PlantService gave order plants at the time of this migration
+    private static String plantName(Map<String, Object> item, long orderId, Timestamp orderDate, int index, int quantity) {
+        String plasticInfo = Boolean.TRUE.equals(item.get("use_plastic")) ? "with plastic" : "eco-friendly";
+        String name = item.get("name") + " (Order #" + orderId + ", "
+                + orderDate.toLocalDateTime().toLocalDate() + ", " + plasticInfo;
+        if (quantity > 1) {
+            name += ", #" + (index + 1) + " of " + quantity;
+        }
+        return name + ")";
+    }
+}
@@ -5,6 +5,7 @@ import com.example.ecotrade.dto.RegisterRequest;
 import com.example.ecotrade.dto.UserDTO;
 import com.example.ecotrade.model.User;
 import com.example.ecotrade.repository.UserRepository;
+import com.example.ecotrade.service.LeaderboardService;
 import com.example.ecotrade.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -24,6 +25,9 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
         // Check if email already exists
@@ -46,6 +50,7 @@ public class AuthController {
         user.setRole("USER"); // Set default role to USER
         
         User savedUser = userRepository.save(user);
+        leaderboardService.userAdded(savedUser.getId(), savedUser.getEcoPoints());
         
         // Convert to DTO to avoid sending sensitive information
         UserDTO userDTO = new UserDTO();
@@ -0,0 +1,38 @@
+package com.example.ecotrade.controller;
+
+import com.example.ecotrade.dto.LeaderboardEntryDTO;
+import com.example.ecotrade.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @Autowired
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntryDTO>> getTop(@RequestParam(defaultValue = "10") Integer limit) {
+        return ResponseEntity.ok(leaderboardService.getTop(Math.max(1, Math.min(limit, 500))));
+    }
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<LeaderboardEntryDTO> getRank(@PathVariable Long userId) {
+        return ResponseEntity.ok(leaderboardService.getRank(userId));
+    }
+
+    @GetMapping("/users/{userId}/around")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getAround(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "5") Integer radius) {
+        return ResponseEntity.ok(leaderboardService.getAround(userId, Math.max(0, Math.min(radius, 50))));
+    }
+}
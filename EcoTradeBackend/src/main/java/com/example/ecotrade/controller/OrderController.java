@@ -1,6 +1,11 @@
 package com.example.ecotrade.controller;
 
+import com.example.ecotrade.dto.BulkResultDTO;
+import com.example.ecotrade.dto.BulkStatusRequest;
 import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.exception.IdempotencyConflictException;
+import com.example.ecotrade.service.OrderIdempotencyService;
+import com.example.ecotrade.service.OrderIdempotencyService.IdempotentOrder;
 import com.example.ecotrade.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,10 +24,12 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
     private final OrderService orderService;
+    private final OrderIdempotencyService orderIdempotencyService;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderIdempotencyService orderIdempotencyService) {
         this.orderService = orderService;
+        this.orderIdempotencyService = orderIdempotencyService;
     }
 
     @GetMapping
@@ -40,13 +47,33 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByUserId(userId));
     }
 
+    // With an Idempotency-Key header, a retry of the same request returns the order created by the
+    // first one (marked with Idempotent-Replayed: true) instead of placing it again
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody OrderDTO orderDTO) {
+    public ResponseEntity<?> createOrder(@RequestBody OrderDTO orderDTO,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            OrderIdempotencyService.checkKey(idempotencyKey);
+        }
         try {
-            logger.info("Received order request: {}", orderDTO);
-            OrderDTO createdOrder = orderService.createOrder(orderDTO);
-            logger.info("Order created successfully with ID: {}", createdOrder.getId());
-            return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+            logger.debug("Received order request for user {} with {} items",
+                    orderDTO.getUserId(), orderDTO.getItems().size());
+            if (idempotencyKey == null) {
+                OrderDTO createdOrder = orderService.createOrder(orderDTO);
+                logger.info("Order created successfully with ID: {}", createdOrder.getId());
+                return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+            }
+            IdempotentOrder result = orderIdempotencyService.createOrder(idempotencyKey, orderDTO);
+            if (result.replayed()) {
+                logger.info("Replayed order {} for Idempotency-Key {}", result.order().getId(), idempotencyKey);
+            } else {
+                logger.info("Order created successfully with ID: {}", result.order().getId());
+            }
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                    .body(result.order());
+        } catch (IdempotencyConflictException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error creating order: {}", e.getMessage(), e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -80,6 +107,12 @@ public class OrderController {
         return ResponseEntity.ok(orderService.cancelOrder(id));
     }
 
+    // Fulfillment: moves many orders to CONFIRMED, SHIPPED or DELIVERED in one request
+    @PutMapping("/bulk/status")
+    public ResponseEntity<BulkResultDTO> transitionOrders(@RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(orderService.transitionOrders(request.getIds(), request.getStatus()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         orderService.deleteOrder(id);
@@ -1,11 +1,14 @@
 package com.example.ecotrade.controller;
 
 import com.example.ecotrade.dto.PlantDTO;
+import com.example.ecotrade.dto.PlantGrowthBucketDTO;
 import com.example.ecotrade.service.PlantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +40,16 @@ public class PlantController {
         return ResponseEntity.ok(plantService.getPlantsFromUserOrders(userId));
     }
 
+    // Growth chart data, e.g. ?resolution=WEEK&from=2024-01-01&to=2024-12-31
+    @GetMapping("/{id}/growth")
+    public ResponseEntity<List<PlantGrowthBucketDTO>> getGrowthHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") PlantGrowthBucketDTO.Resolution resolution) {
+        return ResponseEntity.ok(plantService.getGrowthHistory(id, from, to, resolution));
+    }
+
     @PostMapping("/{id}/record-maintenance")
     public ResponseEntity<PlantDTO> recordMaintenance(
             @PathVariable Long id, 
@@ -1,6 +1,10 @@
 package com.example.ecotrade.controller;
 
+import com.example.ecotrade.dto.BulkResultDTO;
+import com.example.ecotrade.dto.BulkReviewRequest;
+import com.example.ecotrade.dto.PlasticSubmissionAckDTO;
 import com.example.ecotrade.dto.PlasticSubmissionDTO;
+import com.example.ecotrade.service.PlasticSubmissionIntake;
 import com.example.ecotrade.service.PlasticSubmissionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,10 +19,13 @@ import java.util.Map;
 public class PlasticSubmissionController {
 
     private final PlasticSubmissionService plasticSubmissionService;
+    private final PlasticSubmissionIntake plasticSubmissionIntake;
 
     @Autowired
-    public PlasticSubmissionController(PlasticSubmissionService plasticSubmissionService) {
+    public PlasticSubmissionController(PlasticSubmissionService plasticSubmissionService,
+                                       PlasticSubmissionIntake plasticSubmissionIntake) {
         this.plasticSubmissionService = plasticSubmissionService;
+        this.plasticSubmissionIntake = plasticSubmissionIntake;
     }
 
     @GetMapping
@@ -41,6 +48,12 @@ public class PlasticSubmissionController {
         return new ResponseEntity<>(plasticSubmissionService.createSubmission(submissionDTO), HttpStatus.CREATED);
     }
 
+    // One acknowledgement per item, in request order; 429 with Retry-After when the intake queue is full
+    @PostMapping("/bulk")
+    public ResponseEntity<List<PlasticSubmissionAckDTO>> createSubmissions(@RequestBody List<PlasticSubmissionDTO> submissionDTOs) {
+        return ResponseEntity.ok(plasticSubmissionIntake.submit(submissionDTOs));
+    }
+
     @PutMapping("/{id}/verify")
     public ResponseEntity<PlasticSubmissionDTO> verifySubmission(@PathVariable Long id, @RequestBody Map<String, String> payload) {
         String notes = payload.getOrDefault("notes", "");
@@ -53,6 +66,20 @@ public class PlasticSubmissionController {
         return ResponseEntity.ok(plasticSubmissionService.rejectSubmission(id, notes));
     }
 
+    @PutMapping("/bulk/verify")
+    public ResponseEntity<BulkResultDTO> verifySubmissions(@RequestBody BulkReviewRequest request) {
+        return ResponseEntity.ok(plasticSubmissionService.verifySubmissions(request.getIds(), notesOf(request)));
+    }
+
+    @PutMapping("/bulk/reject")
+    public ResponseEntity<BulkResultDTO> rejectSubmissions(@RequestBody BulkReviewRequest request) {
+        return ResponseEntity.ok(plasticSubmissionService.rejectSubmissions(request.getIds(), notesOf(request)));
+    }
+
+    private static String notesOf(BulkReviewRequest request) {
+        return request.getNotes() != null ? request.getNotes() : "";
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSubmission(@PathVariable Long id) {
         plasticSubmissionService.deleteSubmission(id);
@@ -1,13 +1,19 @@
 package com.example.ecotrade.controller;
 
+import com.example.ecotrade.dto.CacheStatsDTO;
 import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.dto.ProductSearchResultDTO;
 import com.example.ecotrade.model.Product;
 import com.example.ecotrade.model.Product.ProductCategory;
 import com.example.ecotrade.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.Map;
 import java.util.Arrays;
@@ -17,6 +23,10 @@ import java.util.Arrays;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
 public class ProductController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ProductService productService;
 
     @Autowired
@@ -25,8 +35,39 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        // Without paging parameters keep returning the full list for existing clients
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(productService.getAllProducts());
+        }
+        return ResponseEntity.ok(productService.getProductsPage(cursor, limit));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = outputStream -> productService.exportProducts(null, outputStream);
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResultDTO> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) ProductCategory category,
+            @RequestParam(required = false) Boolean isPlant,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer offset) {
+        return ResponseEntity.ok(productService.searchProducts(q, category, isPlant, minPrice, maxPrice, limit, offset));
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<String>> suggestProductNames(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.suggestProductNames(prefix, limit));
     }
 
     @GetMapping("/{id}")
@@ -35,8 +76,20 @@ public class ProductController {
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable ProductCategory category) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category));
+    public ResponseEntity<?> getProductsByCategory(
+            @PathVariable ProductCategory category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(productService.getProductsByCategory(category));
+        }
+        return ResponseEntity.ok(productService.getProductsByCategoryPage(category, cursor, limit));
+    }
+
+    @GetMapping("/category/{category}/export")
+    public ResponseEntity<StreamingResponseBody> exportProductsByCategory(@PathVariable ProductCategory category) {
+        StreamingResponseBody body = outputStream -> productService.exportProducts(category, outputStream);
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/plants")
@@ -44,6 +97,11 @@ public class ProductController {
         return ResponseEntity.ok(productService.getPlants());
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
     @PostMapping
     public ResponseEntity<ProductDTO> createProduct(@RequestBody ProductDTO productDTO) {
         return new ResponseEntity<>(productService.createProduct(productDTO), HttpStatus.CREATED);
@@ -181,8 +239,8 @@ public class ProductController {
                 product.setImageUrl(correctUrl);
                 productService.updateProduct(product.getId(), product);
                 updatedCount++;
-                System.out.println("Fixed image URL for product: " + product.getName() + 
-                                   " (ID: " + product.getId() + ") from " + currentUrl + " to " + correctUrl);
+                logger.info("Fixed image URL for product: {} (ID: {}) from {} to {}",
+                        product.getName(), product.getId(), currentUrl, correctUrl);
             }
         }
         
@@ -208,8 +266,8 @@ public class ProductController {
                 product.setImageUrl(correctUrl);
                 productService.updateProduct(product.getId(), product);
                 nameBasedUpdates++;
-                System.out.println("Updated image URL by name for product: " + product.getName() + 
-                                   " (ID: " + product.getId() + ") to " + correctUrl);
+                logger.info("Updated image URL by name for product: {} (ID: {}) to {}",
+                        product.getName(), product.getId(), correctUrl);
             }
         }
         
@@ -259,8 +317,8 @@ public class ProductController {
                 product.setImageUrl(newImageUrl);
                 productService.updateProduct(product.getId(), product);
                 updatedCount++;
-                System.out.println("Updated image URL for product: " + product.getName() + 
-                                   " (ID: " + product.getId() + ") to " + newImageUrl);
+                logger.info("Updated image URL for product: {} (ID: {}) to {}",
+                        product.getName(), product.getId(), newImageUrl);
             }
         }
         
@@ -1,6 +1,8 @@
 package com.example.ecotrade.controller;
 
+import com.example.ecotrade.dto.EcoPointsLedgerEntryDTO;
 import com.example.ecotrade.dto.UserDTO;
+import com.example.ecotrade.dto.UserSummaryDTO;
 import com.example.ecotrade.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -55,4 +57,17 @@ public class UserController {
     public ResponseEntity<UserDTO> useEcoPoints(@PathVariable Long id, @RequestParam Integer points) {
         return ResponseEntity.ok(userService.useEcoPoints(id, points));
     }
+
+    // Order, plant, recycling and points totals for the profile page in a single call
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<UserSummaryDTO> getUserSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(userService.getUserSummary(id));
+    }
+
+    @GetMapping("/{id}/eco-points/ledger")
+    public ResponseEntity<List<EcoPointsLedgerEntryDTO>> getEcoPointsLedger(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "50") Integer limit) {
+        return ResponseEntity.ok(userService.getEcoPointsLedger(id, Math.max(1, Math.min(limit, 500))));
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDTO {
+    private List<Long> succeeded = new ArrayList<>();
+    // id -> reason the item was skipped
+    private Map<Long, String> failed = new LinkedHashMap<>();
+}
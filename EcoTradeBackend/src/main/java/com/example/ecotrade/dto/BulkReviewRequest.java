@@ -0,0 +1,14 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReviewRequest {
+    private List<Long> ids;
+    private String notes;
+}
@@ -0,0 +1,15 @@
+package com.example.ecotrade.dto;
+
+import com.example.ecotrade.model.Order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusRequest {
+    private List<Long> ids;
+    private OrderStatus status;
+}
@@ -0,0 +1,17 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private Long size;
+    private Long hitCount;
+    private Long missCount;
+    private Long evictionCount;
+    private Double hitRate;
+}
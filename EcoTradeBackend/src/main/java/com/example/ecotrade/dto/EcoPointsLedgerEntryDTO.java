@@ -0,0 +1,17 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EcoPointsLedgerEntryDTO {
+    private Long id;
+    private Long userId;
+    private Integer points;
+    private String reason;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private Integer rank;
+    private Long userId;
+    private String name;
+    private Integer ecoPoints;
+}
@@ -0,0 +1,23 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantGrowthBucketDTO {
+    // First day of the bucket: the day, the Monday of the week or the first of the month
+    private LocalDate bucketStart;
+    private Integer recordCount;
+    // Null when no record in the bucket has a height
+    private Double minHeightCm;
+    private Double maxHeightCm;
+    private Double avgHeightCm;
+
+    public enum Resolution {
+        DAY, WEEK, MONTH
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlantReminderDTO {
+    private Long userId;
+    private Long plantId;
+    private String plantName;
+    // WATERING or FERTILIZING
+    private String careType;
+    // The last care, or the planting date for care the plant never had
+    private LocalDate lastCared;
+    // Caring for the plant in this window keeps it on its regular schedule and earns the bonus points
+    private LocalDate windowStart;
+    private LocalDate windowEnd;
+    // The window closed before the reminder went out
+    private boolean overdue;
+}
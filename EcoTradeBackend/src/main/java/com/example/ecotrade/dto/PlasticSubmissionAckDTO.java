@@ -0,0 +1,27 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlasticSubmissionAckDTO {
+    private int index;
+    private AckStatus status;
+    private Long submissionId;
+    private Double ecoPoints;
+    private String message;
+
+    public enum AckStatus {
+        // Stored, submissionId is set
+        CREATED,
+        // Queued but not yet stored when the request returned; it will still be written
+        ACCEPTED,
+        // Invalid item, will never be stored
+        REJECTED,
+        // The intake queue was full, the client should resend this item later
+        RETRY
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageDTO {
+    private List<ProductDTO> items = new ArrayList<>();
+    
+    // Opaque cursor for the next page, null when there are no more products
+    private String nextCursor;
+}
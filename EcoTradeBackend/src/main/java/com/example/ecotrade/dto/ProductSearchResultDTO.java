@@ -0,0 +1,24 @@
+package com.example.ecotrade.dto;
+
+import com.example.ecotrade.model.Product.ProductCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResultDTO {
+    private List<ProductDTO> items = new ArrayList<>();
+    
+    // Number of matching products across all pages
+    private Integer total;
+    
+    // Matches per facet value; each facet ignores its own filter, so the other values stay selectable
+    private Map<ProductCategory, Long> categoryCounts = new HashMap<>();
+    private Map<Boolean, Long> isPlantCounts = new HashMap<>();
+}
@@ -0,0 +1,20 @@
+package com.example.ecotrade.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+    private Long userId;
+    private Integer ecoPoints;
+    // Orders that were not cancelled
+    private Long orderCount;
+    private Double lifetimeSpend;
+    private Long plantCount;
+    private Map<String, Long> plantsByGrowthStage;
+    private Double verifiedPlasticKg;
+}
@@ -0,0 +1,19 @@
+package com.example.ecotrade.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class IntakeBackpressureException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IntakeBackpressureException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
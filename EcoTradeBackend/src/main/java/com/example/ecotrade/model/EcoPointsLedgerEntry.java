@@ -0,0 +1,33 @@
+package com.example.ecotrade.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "eco_points_ledger")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EcoPointsLedgerEntry {
+    
+    @Id
+    @PooledId("eco_points_ledger")
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    // Signed change to the balance, negative when points are spent
+    @Column(nullable = false)
+    private Integer points;
+    
+    @Column(length = 500)
+    private String reason;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
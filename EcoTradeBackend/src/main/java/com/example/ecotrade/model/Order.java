@@ -16,7 +16,7 @@ import java.util.List;
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("orders")
     private Long id;
     
     @ManyToOne
@@ -13,7 +13,7 @@ import lombok.NoArgsConstructor;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("order_items")
     private Long id;
     
     @ManyToOne
@@ -0,0 +1,54 @@
+package com.example.ecotrade.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A status an order entered, whose side effects are still owed or were run (see V7__order_outbox.sql)
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEvent {
+    
+    @Id
+    @PooledId("order_outbox")
+    private Long id;
+    
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", nullable = false)
+    private Order.OrderStatus orderStatus;
+    
+    // Set when the eco points of a delivery were already awarded with the status change
+    @Column(name = "points_awarded", nullable = false)
+    private Boolean pointsAwarded = false;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private State state = State.PENDING;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    
+    public enum State {
+        PENDING, DONE, FAILED
+    }
+}
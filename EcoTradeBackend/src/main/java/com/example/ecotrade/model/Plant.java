@@ -17,7 +17,7 @@ import java.util.List;
 public class Plant {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("plants")
     private Long id;
     
     @ManyToOne
@@ -28,6 +28,11 @@ public class Plant {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
     
+    // Order line this plant was materialized from, null for plants added manually
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_item_id")
+    private OrderItem orderItem;
+    
     @Column(nullable = false)
     private String name;
     
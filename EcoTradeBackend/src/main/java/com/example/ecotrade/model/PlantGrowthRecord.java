@@ -14,7 +14,7 @@ import java.time.LocalDate;
 public class PlantGrowthRecord {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("plant_growth_records")
     private Long id;
     
     @ManyToOne
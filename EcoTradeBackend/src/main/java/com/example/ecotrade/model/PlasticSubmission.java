@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 public class PlasticSubmission {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("plastic_submissions")
     private Long id;
     
     @ManyToOne
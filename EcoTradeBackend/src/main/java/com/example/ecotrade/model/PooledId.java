@@ -0,0 +1,18 @@
+package com.example.ecotrade.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Id assigned before the INSERT from a block reserved in the id_generators table (pooled-lo),
+// which lets Hibernate batch inserts. value is the row in id_generators, usually the table name.
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledId {
+    String value();
+    int allocationSize() default 50;
+}
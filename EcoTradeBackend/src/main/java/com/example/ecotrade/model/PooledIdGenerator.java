@@ -0,0 +1,32 @@
+package com.example.ecotrade.model;
+
+import com.example.ecotrade.repository.IdBlockAllocator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.lang.reflect.Member;
+
+// Created by Hibernate through Spring's bean container, which injects the allocator
+public class PooledIdGenerator implements IdentifierGenerator, AnnotationBasedGenerator<PooledId> {
+
+    private final IdBlockAllocator allocator;
+    private String name;
+    private int allocationSize;
+
+    public PooledIdGenerator(IdBlockAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    @Override
+    public void initialize(PooledId config, Member member, GeneratorCreationContext context) {
+        this.name = config.value();
+        this.allocationSize = config.allocationSize();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return allocator.nextId(name, allocationSize);
+    }
+}
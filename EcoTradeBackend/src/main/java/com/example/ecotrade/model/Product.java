@@ -15,7 +15,7 @@ import java.util.List;
 public class Product {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("products")
     private Long id;
     
     @Column(nullable = false)
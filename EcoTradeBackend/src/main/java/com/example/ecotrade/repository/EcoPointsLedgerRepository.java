@@ -0,0 +1,12 @@
+package com.example.ecotrade.repository;
+
+import com.example.ecotrade.model.EcoPointsLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface EcoPointsLedgerRepository extends JpaRepository<EcoPointsLedgerEntry, Long> {
+    List<EcoPointsLedgerEntry> findByUserIdOrderByIdDesc(Long userId, Limit limit);
+}
@@ -0,0 +1,72 @@
+package com.example.ecotrade.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Stock writes and write-behind checkpoints for products sold from flash-sale counters (see V5__flash_sale_checkpoints.sql)
+@Repository
+public class FlashSaleStockRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Row locks keep regular checkouts out while the counters are loaded
+    public List<StockRow> lockStock(List<Long> productIds) {
+        return productIds.stream()
+                .sorted()
+                .map(id -> jdbcTemplate.query("SELECT id, stock FROM products WHERE id = ? FOR UPDATE",
+                        (rs, rowNum) -> new StockRow(rs.getLong(1), rs.getInt(2)), id))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    public Optional<Checkpoint> findCheckpoint(long productId) {
+        return jdbcTemplate.query(
+                "SELECT last_flush_at, clean_shutdown FROM flash_sale_checkpoints WHERE product_id = ?",
+                (rs, rowNum) -> new Checkpoint(rs.getTimestamp(1).toLocalDateTime(), rs.getBoolean(2)),
+                productId).stream().findFirst();
+    }
+
+    public void saveCheckpoint(long productId, LocalDateTime lastFlushAt, boolean cleanShutdown) {
+        jdbcTemplate.update(
+                "INSERT INTO flash_sale_checkpoints (product_id, last_flush_at, clean_shutdown) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE last_flush_at = VALUES(last_flush_at), clean_shutdown = VALUES(clean_shutdown)",
+                productId, Timestamp.valueOf(lastFlushAt), cleanShutdown);
+    }
+
+    // Units of the product in orders placed since the given time that were not cancelled
+    public int sumOrderedSince(long productId, LocalDateTime since) {
+        Integer sum = jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(oi.quantity), 0) FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                "WHERE oi.product_id = ? AND o.order_date >= ? AND o.status <> 'CANCELLED'",
+                Integer.class, productId, Timestamp.valueOf(since));
+        return sum != null ? sum : 0;
+    }
+
+    public void subtractStock(long productId, long quantity) {
+        jdbcTemplate.update("UPDATE products SET stock = stock - ? WHERE id = ?", quantity, productId);
+    }
+
+    // One batched UPDATE per flush for all products with unflushed reservations
+    public void subtractStock(List<StockRow> deltas) {
+        jdbcTemplate.batchUpdate("UPDATE products SET stock = stock - ? WHERE id = ?", deltas.stream()
+                .map(delta -> new Object[] { delta.stock(), delta.productId() })
+                .toList());
+    }
+
+    public int findStock(long productId) {
+        Integer stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+        return stock != null ? stock : 0;
+    }
+
+    public record StockRow(long productId, int stock) {
+    }
+
+    public record Checkpoint(LocalDateTime lastFlushAt, boolean cleanShutdown) {
+    }
+}
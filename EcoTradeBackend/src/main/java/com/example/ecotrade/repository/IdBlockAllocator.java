@@ -0,0 +1,84 @@
+package com.example.ecotrade.repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out ids from blocks reserved in the id_generators table (pooled-lo: next_val is the first id
+// of the next free block). Blocks are reserved in short transactions on a dedicated DataSource, never
+// on the application's pool: a writer that already holds a pooled connection must not wait for
+// a second one, or a busy pool deadlocks on id allocation.
+public class IdBlockAllocator implements AutoCloseable {
+
+    private static final String SELECT_SQL = "SELECT next_val FROM id_generators WHERE sequence_name = ? FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE id_generators SET next_val = ? WHERE sequence_name = ?";
+
+    private final DataSource dataSource;
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public IdBlockAllocator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public long nextId(String name, int allocationSize) {
+        Block block = blocks.computeIfAbsent(name, key -> new Block());
+        // A lock rather than synchronized: reserving a block does JDBC I/O, which would pin a virtual thread
+        block.lock.lock();
+        try {
+            if (block.next >= block.end) {
+                block.next = reserve(name, allocationSize);
+                block.end = block.next + allocationSize;
+            }
+            return block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    private long reserve(String name, int allocationSize) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long first;
+                try (PreparedStatement select = connection.prepareStatement(SELECT_SQL)) {
+                    select.setString(1, name);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new IllegalStateException("No row in id_generators for " + name);
+                        }
+                        first = rs.getLong(1);
+                    }
+                }
+                try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+                    update.setLong(1, first + allocationSize);
+                    update.setString(2, name);
+                    update.executeUpdate();
+                }
+                connection.commit();
+                return first;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not reserve ids for " + name, e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static final class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ecotrade.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Durable Idempotency-Key records for order submission (see V6__idempotency_keys.sql)
+@Repository
+public class IdempotencyKeyRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Inserts the key row, false when the key is already taken. While another transaction holds an
+    // uncommitted row for the key, the insert waits for it to commit or roll back.
+    public boolean claim(long userId, String idempotencyKey, String requestHash) {
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at) VALUES (?, ?, ?, ?)",
+                    userId, idempotencyKey, requestHash, Timestamp.valueOf(LocalDateTime.now()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void setOrderId(long userId, String idempotencyKey, long orderId) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET order_id = ? WHERE user_id = ? AND idempotency_key = ?",
+                orderId, userId, idempotencyKey);
+    }
+
+    public Optional<KeyRow> find(long userId, String idempotencyKey) {
+        return jdbcTemplate.query(
+                "SELECT request_hash, order_id FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ?",
+                (rs, rowNum) -> new KeyRow(rs.getString(1), rs.getObject(2, Long.class)),
+                userId, idempotencyKey).stream().findFirst();
+    }
+
+    public int deleteCreatedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+
+    public record KeyRow(String requestHash, Long orderId) {
+    }
+}
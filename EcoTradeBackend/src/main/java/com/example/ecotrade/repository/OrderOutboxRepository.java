@@ -0,0 +1,41 @@
+package com.example.ecotrade.repository;
+
+import com.example.ecotrade.model.OrderOutboxEvent;
+import com.example.ecotrade.model.OrderOutboxEvent.State;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+    
+    // Pending events that are due, oldest first, leaving out those of orders that still wait for an
+    // earlier event to be retried so the events of an order are always handled in order
+    @Query("select e from OrderOutboxEvent e where e.state = :state and e.nextAttemptAt <= :now"
+            + " and not exists (select w.id from OrderOutboxEvent w where w.orderId = e.orderId"
+            + " and w.state = :state and w.nextAttemptAt > :now"
+            + " and (w.createdAt < e.createdAt or (w.createdAt = e.createdAt and w.id < e.id)))"
+            + " order by e.createdAt asc, e.id asc")
+    List<OrderOutboxEvent> findDue(@Param("state") State state, @Param("now") LocalDateTime now, Limit limit);
+    
+    boolean existsByOrderIdAndState(Long orderId, State state);
+    
+    long countByState(State state);
+    
+    // Another instance working on the same event waits here and then finds it DONE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OrderOutboxEvent e where e.id = :id")
+    Optional<OrderOutboxEvent> findByIdForUpdate(@Param("id") Long id);
+    
+    @Modifying
+    @Query("delete from OrderOutboxEvent e where e.state = :state and e.processedAt < :before")
+    int deleteProcessedBefore(@Param("state") State state, @Param("before") LocalDateTime before);
+}
@@ -1,13 +1,57 @@
 package com.example.ecotrade.repository;
 
 import com.example.ecotrade.model.Order;
+import com.example.ecotrade.model.Order.OrderStatus;
 import com.example.ecotrade.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUser(User user);
     List<Order> findByUserId(Long userId);
-} 
\ No newline at end of file
+    
+    // Fetch-join variants load orders, their user, items and products in a single query
+    @Query("select distinct o from Order o join fetch o.user left join fetch o.items i left join fetch i.product order by o.id")
+    List<Order> findAllWithItems();
+    
+    @Query("select distinct o from Order o join fetch o.user left join fetch o.items i left join fetch i.product "
+            + "where o.user.id = :userId order by o.id")
+    List<Order> findByUserIdWithItems(@Param("userId") Long userId);
+    
+    @Query("select o from Order o join fetch o.user left join fetch o.items i left join fetch i.product where o.id = :id")
+    Optional<Order> findByIdWithItems(@Param("id") Long id);
+    
+    // Locks the orders that can make the transition, in ascending id order like the stock reservation
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id as id, o.user.id as userId, o.ecoPointsEarned as ecoPointsEarned from Order o " +
+           "where o.id in :ids and o.status = :status order by o.id")
+    List<TransitionCandidate> findTransitionCandidatesForUpdate(@Param("ids") Collection<Long> ids,
+                                                                @Param("status") OrderStatus status);
+    
+    @Query("select o.id as id, o.status as status from Order o where o.id in :ids")
+    List<OrderStatusView> findStatusesByIds(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :status where o.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+    
+    interface TransitionCandidate {
+        Long getId();
+        Long getUserId();
+        Integer getEcoPointsEarned();
+    }
+    
+    interface OrderStatusView {
+        Long getId();
+        OrderStatus getStatus();
+    }
+}
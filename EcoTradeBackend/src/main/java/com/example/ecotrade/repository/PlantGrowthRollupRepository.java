@@ -0,0 +1,44 @@
+package com.example.ecotrade.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+// Daily growth rollups maintained alongside plant_growth_records (see V9__plant_growth_daily.sql)
+@Repository
+public class PlantGrowthRollupRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The min/max expressions keep the non-null side when either the row or the new record has no height
+    public void recordAdded(long plantId, LocalDate recordDate, Double heightCm) {
+        jdbcTemplate.update(
+                "INSERT INTO plant_growth_daily (plant_id, record_date, record_count, height_count, height_sum, " +
+                "height_min, height_max) VALUES (?, ?, 1, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE record_count = record_count + 1, " +
+                "height_count = height_count + VALUES(height_count), " +
+                "height_sum = height_sum + VALUES(height_sum), " +
+                "height_min = least(coalesce(height_min, VALUES(height_min)), coalesce(VALUES(height_min), height_min)), " +
+                "height_max = greatest(coalesce(height_max, VALUES(height_max)), coalesce(VALUES(height_max), height_max))",
+                plantId, Date.valueOf(recordDate), heightCm != null ? 1 : 0, heightCm != null ? heightCm : 0.0,
+                heightCm, heightCm);
+    }
+
+    // Days with records between from and to (inclusive), oldest first
+    public List<DailyRollup> findDaily(long plantId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT record_date, record_count, height_count, height_sum, height_min, height_max " +
+                "FROM plant_growth_daily WHERE plant_id = ? AND record_date BETWEEN ? AND ? ORDER BY record_date",
+                (rs, rowNum) -> new DailyRollup(rs.getDate(1).toLocalDate(), rs.getInt(2), rs.getInt(3),
+                        rs.getDouble(4), rs.getObject(5, Double.class), rs.getObject(6, Double.class)),
+                plantId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public record DailyRollup(LocalDate day, int recordCount, int heightCount, double heightSum,
+                              Double heightMin, Double heightMax) {
+    }
+}
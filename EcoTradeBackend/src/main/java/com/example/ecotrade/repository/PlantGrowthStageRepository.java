@@ -0,0 +1,76 @@
+package com.example.ecotrade.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Set-based growth stage updates for the scheduled recomputation. A plant's stage follows from its
+// planting date alone, so every stage is a planting date range and a CASE over those ranges sets the
+// stage of a whole id range of plants in one statement.
+@Repository
+public class PlantGrowthStageRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Locks the next chunkSize plants after afterId and returns their ids in order
+    public List<Long> lockNextChunk(long afterId, int chunkSize) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM plants WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE", Long.class, afterId, chunkSize);
+    }
+
+    // Plants in (afterId, lastId] whose stage differs from the one their planting date falls into,
+    // counted per owner and stage move
+    public List<StageChange> findStageChanges(long afterId, long lastId, List<StageBucket> buckets) {
+        List<Object> args = new ArrayList<>();
+        String stage = stageCase(buckets, args);
+        args.add(afterId);
+        args.add(lastId);
+        return jdbcTemplate.query(
+                "SELECT s.user_id, s.growth_stage, s.new_stage, count(*) FROM (" +
+                "SELECT user_id, growth_stage, " + stage + " AS new_stage FROM plants " +
+                "WHERE id > ? AND id <= ? AND planting_date IS NOT NULL) s " +
+                "WHERE s.growth_stage IS NULL OR s.growth_stage <> s.new_stage " +
+                "GROUP BY s.user_id, s.growth_stage, s.new_stage",
+                (rs, rowNum) -> new StageChange(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4)),
+                args.toArray());
+    }
+
+    public int updateStages(long afterId, long lastId, List<StageBucket> buckets) {
+        List<Object> args = new ArrayList<>();
+        String stage = stageCase(buckets, args);
+        args.add(afterId);
+        args.add(lastId);
+        String changed = stageCase(buckets, args);
+        return jdbcTemplate.update(
+                "UPDATE plants SET growth_stage = " + stage + " " +
+                "WHERE id > ? AND id <= ? AND planting_date IS NOT NULL " +
+                "AND (growth_stage IS NULL OR growth_stage <> " + changed + ")",
+                args.toArray());
+    }
+
+    // Buckets are ordered from the most recent planting dates; the last one has no bound and takes the rest
+    private static String stageCase(List<StageBucket> buckets, List<Object> args) {
+        StringBuilder sql = new StringBuilder("CASE");
+        for (StageBucket bucket : buckets) {
+            if (bucket.plantedAfter() != null) {
+                sql.append(" WHEN planting_date > ? THEN ?");
+                args.add(Date.valueOf(bucket.plantedAfter()));
+            } else {
+                sql.append(" ELSE ?");
+            }
+            args.add(bucket.growthStage());
+        }
+        return sql.append(" END").toString();
+    }
+
+    public record StageBucket(String growthStage, LocalDate plantedAfter) {
+    }
+
+    public record StageChange(long userId, String previousStage, String growthStage, long plants) {
+    }
+}
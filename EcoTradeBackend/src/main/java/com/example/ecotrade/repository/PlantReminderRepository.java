@@ -0,0 +1,87 @@
+package com.example.ecotrade.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Care dates of plants for the reminder index: streamed once at startup, then read back only for
+// the plants that come due. Also records the care dates reminders were sent for
+// (see V11__plant_reminders_sent.sql).
+@Repository
+public class PlantReminderRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // Care a plant never had is counted from its planting date
+    private static final String WATERED = "COALESCE(p.last_watered, p.planting_date)";
+    private static final String FERTILIZED = "COALESCE(p.last_fertilized, p.planting_date)";
+
+    // Rows are passed on one at a time, so the whole table is never held in memory. A care date that a
+    // reminder was already sent for is passed as null.
+    public void forEachUnremindedCareDates(Consumer<CareDates> action) {
+        jdbcTemplate.query(
+                "SELECT p.id, p.user_id, p.name, " +
+                "CASE WHEN w.last_cared = " + WATERED + " THEN NULL ELSE " + WATERED + " END, " +
+                "CASE WHEN f.last_cared = " + FERTILIZED + " THEN NULL ELSE " + FERTILIZED + " END FROM plants p " +
+                "LEFT JOIN plant_reminders_sent w ON w.plant_id = p.id AND w.care_type = 'WATERING' " +
+                "LEFT JOIN plant_reminders_sent f ON f.plant_id = p.id AND f.care_type = 'FERTILIZING' " +
+                "WHERE COALESCE(p.last_watered, p.last_fertilized, p.planting_date) IS NOT NULL",
+                rs -> {
+                    action.accept(careDates(rs));
+                });
+    }
+
+    public void recordSent(List<SentReminder> reminders) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO plant_reminders_sent (plant_id, care_type, last_cared, sent_at) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE last_cared = VALUES(last_cared), sent_at = VALUES(sent_at)",
+                reminders.stream()
+                        .map(reminder -> new Object[] {reminder.plantId(), reminder.careType(),
+                                Date.valueOf(reminder.lastCared()), now})
+                        .toList());
+    }
+
+    public List<CareDates> findCareDates(Collection<Long> plantIds) {
+        if (plantIds.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(
+                "SELECT p.id, p.user_id, p.name, " + WATERED + ", " + FERTILIZED + " FROM plants p WHERE p.id IN (:ids)",
+                Map.of("ids", plantIds),
+                (rs, rowNum) -> careDates(rs));
+    }
+
+    private static CareDates careDates(ResultSet rs) throws SQLException {
+        return new CareDates(rs.getLong(1), rs.getLong(2), rs.getString(3), toLocalDate(rs.getDate(4)),
+                toLocalDate(rs.getDate(5)));
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    public record SentReminder(long plantId, String careType, LocalDate lastCared) {
+    }
+
+    // The days the watering and fertilizing windows are counted from: the last care, or the planting
+    // date for care the plant never had
+    public record CareDates(long plantId, long userId, String name, LocalDate lastWatered,
+                            LocalDate lastFertilized) {
+    }
+}
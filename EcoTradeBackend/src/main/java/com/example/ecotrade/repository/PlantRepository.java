@@ -3,7 +3,10 @@ package com.example.ecotrade.repository;
 import com.example.ecotrade.model.Plant;
 import com.example.ecotrade.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +14,12 @@ public interface PlantRepository extends JpaRepository<Plant, Long> {
     List<Plant> findByUser(User user);
     List<Plant> findByUserId(Long userId);
     List<Plant> findByUserIdAndProductId(Long userId, Long productId);
+    
+    // Plants materialized from the user's orders, with everything the DTO needs
+    @Query("select p from Plant p join fetch p.user left join fetch p.product "
+            + "where p.user.id = :userId and p.orderItem is not null order by p.id")
+    List<Plant> findOrderPlantsByUserId(@Param("userId") Long userId);
+    
+    @Query("select p.orderItem.id, count(p) from Plant p where p.orderItem.id in :orderItemIds group by p.orderItem.id")
+    List<Object[]> countByOrderItemIds(@Param("orderItemIds") Collection<Long> orderItemIds);
 } 
\ No newline at end of file
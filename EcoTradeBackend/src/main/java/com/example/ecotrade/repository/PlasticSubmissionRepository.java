@@ -1,13 +1,49 @@
 package com.example.ecotrade.repository;
 
 import com.example.ecotrade.model.PlasticSubmission;
+import com.example.ecotrade.model.PlasticSubmission.SubmissionStatus;
 import com.example.ecotrade.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PlasticSubmissionRepository extends JpaRepository<PlasticSubmission, Long> {
     List<PlasticSubmission> findByUser(User user);
     List<PlasticSubmission> findByUserId(Long userId);
-} 
\ No newline at end of file
+    
+    // Locks the rows so that concurrent reviews of the same submissions cannot award points twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s.id as id, s.user.id as userId, s.ecoPoints as ecoPoints, s.weight as weight from PlasticSubmission s " +
+           "where s.id in :ids and s.status = :status order by s.id")
+    List<ReviewCandidate> findReviewCandidatesForUpdate(@Param("ids") Collection<Long> ids,
+                                                        @Param("status") SubmissionStatus status);
+    
+    @Query("select s.id as id, s.status as status from PlasticSubmission s where s.id in :ids")
+    List<SubmissionStatusView> findStatusesByIds(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PlasticSubmission s set s.status = :status, s.notes = :notes, s.verificationNotes = :notes, " +
+           "s.verificationDate = :date where s.id in :ids")
+    int updateReviewStatus(@Param("ids") Collection<Long> ids, @Param("status") SubmissionStatus status,
+                           @Param("notes") String notes, @Param("date") LocalDateTime date);
+    
+    interface ReviewCandidate {
+        Long getId();
+        Long getUserId();
+        Double getEcoPoints();
+        Double getWeight();
+    }
+    
+    interface SubmissionStatusView {
+        Long getId();
+        SubmissionStatus getStatus();
+    }
+}
@@ -2,14 +2,52 @@ package com.example.ecotrade.repository;
 
 import com.example.ecotrade.model.Product;
 import com.example.ecotrade.model.Product.ProductCategory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategory(ProductCategory category);
     List<Product> findByIsPlant(Boolean isPlant);
     List<Product> findByName(String name);
-} 
\ No newline at end of file
+    
+    // Keyset (seek) pagination: next page starts after the last id of the previous one
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    List<Product> findByCategoryAndIdGreaterThanOrderByIdAsc(ProductCategory category, Long id, Limit limit);
+    
+    // Locks the rows in ascending id order so concurrent orders always lock in the same sequence
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id in :ids order by p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Conditional decrement, returns 0 when there is not enough stock left
+    @Modifying(flushAutomatically = true)
+    @Query("update Product p set p.stock = p.stock - :quantity where p.id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("update Product p set p.stock = p.stock + :quantity where p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    // Streaming queries for full exports, must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Product p where p.category = :category order by p.id")
+    Stream<Product> streamByCategory(@Param("category") ProductCategory category);
+}
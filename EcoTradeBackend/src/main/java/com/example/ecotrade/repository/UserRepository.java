@@ -2,7 +2,12 @@ package com.example.ecotrade.repository;
 
 import com.example.ecotrade.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
     Optional<User> findByUsername(String username);
+    
+    // Atomic balance updates, so concurrent awards are never lost
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.ecoPoints = u.ecoPoints + :points where u.id = :id")
+    int addEcoPoints(@Param("id") Long id, @Param("points") int points);
+    
+    // Returns 0 when the user does not exist or does not have enough points
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.ecoPoints = u.ecoPoints - :points where u.id = :id and u.ecoPoints >= :points")
+    int deductEcoPoints(@Param("id") Long id, @Param("points") int points);
+    
+    @Query("select u.ecoPoints from User u where u.id = :id")
+    Optional<Integer> findEcoPointsById(@Param("id") Long id);
+    
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("select u.id as id, u.name as name from User u where u.id in :ids")
+    List<UserNameView> findNamesByIds(@Param("ids") Collection<Long> ids);
+    
+    interface UserNameView {
+        Long getId();
+        String getName();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.example.ecotrade.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Incrementally maintained per-user aggregates (see V4__user_summaries.sql). Deltas are applied with
+// upserts, so a user's row is created by its first change and concurrent writers never lose updates.
+@Repository
+public class UserSummaryRepository {
+
+    // Plants without a growth stage are counted under this key
+    public static final String UNKNOWN_STAGE = "Unknown";
+
+    private static final String UPSERT_SUMMARY_SQL =
+            "INSERT INTO user_summaries (user_id, order_count, lifetime_spend, verified_plastic_kg) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "lifetime_spend = lifetime_spend + VALUES(lifetime_spend), " +
+            "verified_plastic_kg = verified_plastic_kg + VALUES(verified_plastic_kg)";
+
+    private static final String UPSERT_PLANT_STAGE_SQL =
+            "INSERT INTO user_plant_stage_counts (user_id, growth_stage, plant_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE plant_count = plant_count + VALUES(plant_count)";
+
+    private static final String REBUILD_SUMMARIES_SQL =
+            "INSERT INTO user_summaries (user_id, order_count, lifetime_spend, verified_plastic_kg) " +
+            "SELECT u.id, " +
+            "(SELECT count(*) FROM orders o WHERE o.user_id = u.id AND o.status <> 'CANCELLED'), " +
+            "(SELECT coalesce(sum(o.total_amount), 0) FROM orders o WHERE o.user_id = u.id AND o.status <> 'CANCELLED'), " +
+            "(SELECT coalesce(sum(s.weight), 0) FROM plastic_submissions s WHERE s.user_id = u.id AND s.status = 'VERIFIED') " +
+            "FROM users u";
+
+    private static final String REBUILD_PLANT_STAGES_SQL =
+            "INSERT INTO user_plant_stage_counts (user_id, growth_stage, plant_count) " +
+            "SELECT p.user_id, coalesce(p.growth_stage, '" + UNKNOWN_STAGE + "'), count(*) FROM plants p " +
+            "GROUP BY p.user_id, coalesce(p.growth_stage, '" + UNKNOWN_STAGE + "')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Callers pass deltas sorted by user id, so concurrent batches lock rows in the same order
+    public void applySummaryDeltas(List<SummaryDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SUMMARY_SQL, deltas.stream()
+                .map(delta -> new Object[] { delta.userId(), delta.orders(), delta.spend(), delta.plasticKg() })
+                .toList());
+    }
+
+    public void applyPlantStageDeltas(List<PlantStageDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PLANT_STAGE_SQL, deltas.stream()
+                .map(delta -> new Object[] { delta.userId(), delta.growthStage(), delta.plants() })
+                .toList());
+    }
+
+    // Left join from users: a user whose summary row was never written reads as all zeros
+    public Optional<SummaryRow> findSummary(Long userId) {
+        return jdbcTemplate.query(
+                "SELECT u.id, u.eco_points, coalesce(s.order_count, 0), coalesce(s.lifetime_spend, 0), " +
+                "coalesce(s.verified_plastic_kg, 0) FROM users u LEFT JOIN user_summaries s ON s.user_id = u.id " +
+                "WHERE u.id = ?",
+                (rs, rowNum) -> new SummaryRow(rs.getLong(1), rs.getInt(2), rs.getLong(3), rs.getDouble(4),
+                        rs.getDouble(5)),
+                userId).stream().findFirst();
+    }
+
+    public Map<String, Long> findPlantStageCounts(Long userId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT growth_stage, plant_count FROM user_plant_stage_counts " +
+                "WHERE user_id = ? AND plant_count > 0 ORDER BY growth_stage",
+                rs -> {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                },
+                userId);
+        return counts;
+    }
+
+    // Recomputes every aggregate from the source tables, for data written around the services
+    public void rebuildAll() {
+        jdbcTemplate.update("DELETE FROM user_plant_stage_counts");
+        jdbcTemplate.update("DELETE FROM user_summaries");
+        jdbcTemplate.update(REBUILD_SUMMARIES_SQL);
+        jdbcTemplate.update(REBUILD_PLANT_STAGES_SQL);
+    }
+
+    public record SummaryDelta(long userId, long orders, double spend, double plasticKg) {
+    }
+
+    public record PlantStageDelta(long userId, String growthStage, long plants) {
+    }
+
+    public record SummaryRow(long userId, int ecoPoints, long orderCount, double lifetimeSpend,
+                             double verifiedPlasticKg) {
+    }
+}
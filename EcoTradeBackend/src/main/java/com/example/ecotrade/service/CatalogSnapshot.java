@@ -0,0 +1,342 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.model.Product.ProductCategory;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Copy of the products table for catalog reads, stored column by column in id order: ids, prices,
+// points and stock in primitive arrays, categories as enum ordinals and equal image URLs shared. Per
+// product that is a few array slots instead of an entity or DTO object graph. Everything but stock is
+// immutable; stock changes with every checkout, so it is updated in place instead of copying the
+// snapshot. Lists handed out are views that create each ProductDTO when it is read, so callers may
+// change the DTOs freely.
+public final class CatalogSnapshot {
+
+    private static final ProductCategory[] CATEGORIES = ProductCategory.values();
+    // Sentinels for the nullable columns
+    private static final int NO_REWARD = Integer.MIN_VALUE;
+    private static final byte NO_CATEGORY = -1;
+    private static final byte PLANT_UNKNOWN = -1;
+
+    private final long[] ids;
+    private final String[] names;
+    private final String[] descriptions;
+    private final double[] prices;
+    private final int[] ecoPointsCosts;
+    private final int[] ecoPointsRewards;
+    // The one column updated in place, see setStock()
+    private final AtomicIntegerArray stocks;
+    private final String[] imageUrls;
+    private final byte[] categories;
+    private final byte[] plantFlags;
+    // Row numbers of each category and of the plants, in id order
+    private final int[][] categoryRows;
+    private final int[] plantRows;
+
+    private CatalogSnapshot(long[] ids, String[] names, String[] descriptions, double[] prices, int[] ecoPointsCosts,
+                            int[] ecoPointsRewards, AtomicIntegerArray stocks, String[] imageUrls, byte[] categories,
+                            byte[] plantFlags) {
+        this.ids = ids;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.prices = prices;
+        this.ecoPointsCosts = ecoPointsCosts;
+        this.ecoPointsRewards = ecoPointsRewards;
+        this.stocks = stocks;
+        this.imageUrls = imageUrls;
+        this.categories = categories;
+        this.plantFlags = plantFlags;
+        this.categoryRows = indexCategories(categories);
+        this.plantRows = indexPlants(plantFlags);
+    }
+
+    // Builds a snapshot of the given products, in any order
+    public static CatalogSnapshot of(Collection<Row> rows) {
+        List<Row> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingLong(Row::id));
+        int size = sorted.size();
+        long[] ids = new long[size];
+        String[] names = new String[size];
+        String[] descriptions = new String[size];
+        double[] prices = new double[size];
+        int[] ecoPointsCosts = new int[size];
+        int[] ecoPointsRewards = new int[size];
+        int[] stocks = new int[size];
+        String[] imageUrls = new String[size];
+        byte[] categories = new byte[size];
+        byte[] plantFlags = new byte[size];
+        // Most products reuse a handful of images, keep one copy of each URL
+        Map<String, String> sharedUrls = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Row row = sorted.get(i);
+            if (i > 0 && ids[i - 1] == row.id()) {
+                throw new IllegalArgumentException("Duplicate product id in catalog: " + row.id());
+            }
+            ids[i] = row.id();
+            names[i] = row.name();
+            descriptions[i] = row.description();
+            prices[i] = row.price();
+            ecoPointsCosts[i] = row.ecoPointsCost();
+            ecoPointsRewards[i] = row.ecoPointsReward() != null ? row.ecoPointsReward() : NO_REWARD;
+            stocks[i] = row.stock();
+            imageUrls[i] = row.imageUrl() != null ? sharedUrls.computeIfAbsent(row.imageUrl(), url -> url) : null;
+            categories[i] = row.category() != null ? (byte) row.category().ordinal() : NO_CATEGORY;
+            plantFlags[i] = plantFlag(row.isPlant());
+        }
+        return new CatalogSnapshot(ids, names, descriptions, prices, ecoPointsCosts, ecoPointsRewards,
+                new AtomicIntegerArray(stocks), imageUrls, categories, plantFlags);
+    }
+
+    // A new snapshot in which the products with the given ids are replaced by rows; ids without a row
+    // are removed and rows not in the snapshot yet are added. This snapshot is left unchanged. Copies
+    // every column, meant for product edits; stock changes go through setStock().
+    public CatalogSnapshot with(Set<Long> changedIds, List<Row> rows) {
+        Map<Long, Row> rowsById = new HashMap<>();
+        for (Row row : rows) {
+            rowsById.put(row.id(), row);
+        }
+        boolean sameProducts = changedIds.containsAll(rowsById.keySet());
+        for (long id : changedIds) {
+            sameProducts &= (indexOf(id) >= 0) == rowsById.containsKey(id);
+        }
+        if (!sameProducts) {
+            List<Row> merged = new ArrayList<>(ids.length + rows.size());
+            for (int i = 0; i < ids.length; i++) {
+                if (!changedIds.contains(ids[i]) && !rowsById.containsKey(ids[i])) {
+                    merged.add(row(i));
+                }
+            }
+            merged.addAll(rowsById.values());
+            return of(merged);
+        }
+
+        // Only values changed: copy the columns and overwrite the changed rows in place
+        String[] newNames = names.clone();
+        String[] newDescriptions = descriptions.clone();
+        double[] newPrices = prices.clone();
+        int[] newEcoPointsCosts = ecoPointsCosts.clone();
+        int[] newEcoPointsRewards = ecoPointsRewards.clone();
+        int[] newStocks = new int[ids.length];
+        for (int i = 0; i < newStocks.length; i++) {
+            newStocks[i] = stocks.get(i);
+        }
+        String[] newImageUrls = imageUrls.clone();
+        byte[] newCategories = categories.clone();
+        byte[] newPlantFlags = plantFlags.clone();
+        for (Row row : rowsById.values()) {
+            int i = indexOf(row.id());
+            newNames[i] = row.name();
+            newDescriptions[i] = row.description();
+            newPrices[i] = row.price();
+            newEcoPointsCosts[i] = row.ecoPointsCost();
+            newEcoPointsRewards[i] = row.ecoPointsReward() != null ? row.ecoPointsReward() : NO_REWARD;
+            newStocks[i] = row.stock();
+            newImageUrls[i] = Objects.equals(row.imageUrl(), imageUrls[i]) ? imageUrls[i] : row.imageUrl();
+            newCategories[i] = row.category() != null ? (byte) row.category().ordinal() : NO_CATEGORY;
+            newPlantFlags[i] = plantFlag(row.isPlant());
+        }
+        return new CatalogSnapshot(ids, newNames, newDescriptions, newPrices, newEcoPointsCosts, newEcoPointsRewards,
+                new AtomicIntegerArray(newStocks), newImageUrls, newCategories, newPlantFlags);
+    }
+
+    // Sets the stock of a product in this snapshot; false if the product is not in it
+    public boolean setStock(long id, int stock) {
+        int row = indexOf(id);
+        if (row < 0) {
+            return false;
+        }
+        stocks.set(row, stock);
+        return true;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Row number of the product, or a negative number if it is not in the snapshot
+    public int indexOf(long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    public ProductDTO get(long id) {
+        int row = indexOf(id);
+        return row >= 0 ? toDTO(row) : null;
+    }
+
+    public List<ProductDTO> all() {
+        return new RowList(null, 0, ids.length);
+    }
+
+    public List<ProductDTO> byCategory(ProductCategory category) {
+        int[] rows = categoryRows[category.ordinal()];
+        return new RowList(rows, 0, rows.length);
+    }
+
+    public List<ProductDTO> plants() {
+        return new RowList(plantRows, 0, plantRows.length);
+    }
+
+    // Up to limit products with an id greater than afterId, in id order
+    public List<ProductDTO> pageAfter(long afterId, int limit) {
+        int from = firstAfter(null, ids.length, afterId);
+        return new RowList(null, from, (int) Math.min(ids.length, (long) from + limit));
+    }
+
+    public List<ProductDTO> pageAfter(ProductCategory category, long afterId, int limit) {
+        int[] rows = categoryRows[category.ordinal()];
+        int from = firstAfter(rows, rows.length, afterId);
+        return new RowList(rows, from, (int) Math.min(rows.length, (long) from + limit));
+    }
+
+    // Rough retained size in bytes assuming a 64-bit JVM with compressed pointers and Latin-1 strings;
+    // strings shared between rows are counted once
+    public long estimatedBytes() {
+        int size = ids.length;
+        long bytes = 16 + 12 * 4
+                + 2 * array(size, 8)      // ids, prices
+                + 3 * array(size, 4) + 16 // points and stock, with the stock array's wrapper
+                + 3 * array(size, 4)      // string references
+                + 2 * array(size, 1)      // categories, plant flags
+                + array(plantRows.length, 4) + array(categoryRows.length, 4);
+        for (int[] rows : categoryRows) {
+            bytes += array(rows.length, 4);
+        }
+        Set<String> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String[] column : List.of(names, descriptions, imageUrls)) {
+            for (String value : column) {
+                if (value != null && counted.add(value)) {
+                    bytes += 24 + array(value.length(), 1);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long array(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    private ProductDTO toDTO(int row) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setId(ids[row]);
+        productDTO.setName(names[row]);
+        productDTO.setDescription(descriptions[row]);
+        productDTO.setPrice(prices[row]);
+        productDTO.setEcoPointsCost(ecoPointsCosts[row]);
+        productDTO.setEcoPointsReward(ecoPointsRewards[row] != NO_REWARD ? ecoPointsRewards[row] : null);
+        productDTO.setStock(stocks.get(row));
+        productDTO.setImageUrl(imageUrls[row]);
+        productDTO.setCategory(categories[row] != NO_CATEGORY ? CATEGORIES[categories[row]] : null);
+        productDTO.setIsPlant(plantFlags[row] != PLANT_UNKNOWN ? plantFlags[row] == 1 : null);
+        return productDTO;
+    }
+
+    private Row row(int i) {
+        return new Row(ids[i], names[i], descriptions[i], prices[i], ecoPointsCosts[i],
+                ecoPointsRewards[i] != NO_REWARD ? ecoPointsRewards[i] : null, stocks.get(i), imageUrls[i],
+                categories[i] != NO_CATEGORY ? CATEGORIES[categories[i]] : null,
+                plantFlags[i] != PLANT_UNKNOWN ? plantFlags[i] == 1 : null);
+    }
+
+    // Position of the first row with an id greater than afterId among the given rows, all rows if null
+    private int firstAfter(int[] rows, int length, long afterId) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[rows != null ? rows[mid] : mid] <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static byte plantFlag(Boolean isPlant) {
+        return isPlant == null ? PLANT_UNKNOWN : isPlant ? (byte) 1 : (byte) 0;
+    }
+
+    private static int[][] indexCategories(byte[] categories) {
+        int[] counts = new int[CATEGORIES.length];
+        for (byte category : categories) {
+            if (category != NO_CATEGORY) {
+                counts[category]++;
+            }
+        }
+        int[][] rows = new int[CATEGORIES.length][];
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            rows[c] = new int[counts[c]];
+            counts[c] = 0;
+        }
+        for (int i = 0; i < categories.length; i++) {
+            byte category = categories[i];
+            if (category != NO_CATEGORY) {
+                rows[category][counts[category]++] = i;
+            }
+        }
+        return rows;
+    }
+
+    private static int[] indexPlants(byte[] plantFlags) {
+        int count = 0;
+        for (byte flag : plantFlags) {
+            if (flag == 1) {
+                count++;
+            }
+        }
+        int[] rows = new int[count];
+        count = 0;
+        for (int i = 0; i < plantFlags.length; i++) {
+            if (plantFlags[i] == 1) {
+                rows[count++] = i;
+            }
+        }
+        return rows;
+    }
+
+    // Rows from..to of the given row numbers, or of all rows if null
+    private final class RowList extends AbstractList<ProductDTO> implements RandomAccess {
+
+        private final int[] rows;
+        private final int from;
+        private final int to;
+
+        RowList(int[] rows, int from, int to) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public ProductDTO get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return toDTO(rows != null ? rows[from + index] : from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    public record Row(long id, String name, String description, double price, int ecoPointsCost,
+                      Integer ecoPointsReward, int stock, String imageUrl, ProductCategory category,
+                      Boolean isPlant) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ecotrade.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Collects high-volume awards (e.g. plant maintenance) in memory and flushes them as batched deltas,
+// one ledger row per user and reason. Awards are only collected once the awarding transaction commits.
+// ConcurrentHashMap.merge locks a single bin, so concurrent awards for different users do not contend.
+@Component
+public class EcoPointsAccumulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EcoPointsAccumulator.class);
+
+    @Autowired
+    private EcoPointsService ecoPointsService;
+
+    @Value("${ecotrade.eco-points.accumulator.enabled:false}")
+    private boolean enabled;
+
+    private final ConcurrentHashMap<PendingAward, Integer> pending = new ConcurrentHashMap<>();
+
+    public void addPoints(Long userId, int points, String reason) {
+        if (!enabled) {
+            ecoPointsService.addPoints(userId, points, reason);
+            return;
+        }
+        if (points != 0) {
+            TransactionCallbacks.afterCommit(() -> pending.merge(new PendingAward(userId, reason), points, Integer::sum));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ecotrade.eco-points.accumulator.flush-interval:5s}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        // remove() hands over each delta atomically, awards arriving meanwhile go to the next flush
+        Map<PendingAward, Integer> drained = new HashMap<>();
+        for (PendingAward award : pending.keySet()) {
+            Integer points = pending.remove(award);
+            if (points != null) {
+                drained.put(award, points);
+            }
+        }
+        
+        Map<Long, Map<String, Integer>> deltasByUser = new HashMap<>();
+        drained.forEach((award, points) -> deltasByUser
+                .computeIfAbsent(award.userId(), id -> new HashMap<>())
+                .merge(award.reason(), points, Integer::sum));
+        
+        try {
+            ecoPointsService.applyDeltas(deltasByUser);
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush {} pending eco point awards, retrying on next flush", drained.size(), e);
+            drained.forEach((award, points) -> pending.merge(award, points, Integer::sum));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record PendingAward(Long userId, String reason) {
+    }
+}
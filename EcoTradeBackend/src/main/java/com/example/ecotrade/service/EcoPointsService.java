@@ -0,0 +1,124 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.EcoPointsLedgerEntryDTO;
+import com.example.ecotrade.exception.ResourceNotFoundException;
+import com.example.ecotrade.model.EcoPointsLedgerEntry;
+import com.example.ecotrade.repository.EcoPointsLedgerRepository;
+import com.example.ecotrade.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(value = "ecotrade.service", histogram = true)
+public class EcoPointsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EcoPointsService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EcoPointsLedgerRepository ecoPointsLedgerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Transactional
+    public void addPoints(Long userId, int points, String reason) {
+        if (points == 0) {
+            return;
+        }
+        if (userRepository.addEcoPoints(userId, points) == 0) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        appendToLedger(userId, points, reason);
+        leaderboardService.pointsChanged(userId, points);
+    }
+
+    @Transactional
+    public void deductPoints(Long userId, int points, String reason) {
+        if (points <= 0) {
+            return;
+        }
+        if (userRepository.deductEcoPoints(userId, points) == 0) {
+            if (!userRepository.existsById(userId)) {
+                throw new ResourceNotFoundException("User not found with id: " + userId);
+            }
+            throw new IllegalArgumentException("User does not have enough eco points");
+        }
+        appendToLedger(userId, -points, reason);
+        leaderboardService.pointsChanged(userId, -points);
+    }
+
+    // Applies many awards at once: one batched balance update per user and one ledger row per entry
+    @Transactional
+    public void applyDeltas(Map<Long, Map<String, Integer>> deltasByUser) {
+        List<Long> userIds = new ArrayList<>();
+        List<Object[]> balanceUpdates = new ArrayList<>();
+        deltasByUser.forEach((userId, deltasByReason) -> {
+            int total = deltasByReason.values().stream().mapToInt(Integer::intValue).sum();
+            if (total != 0) {
+                userIds.add(userId);
+                balanceUpdates.add(new Object[] { total, userId });
+            }
+        });
+        if (balanceUpdates.isEmpty()) {
+            return;
+        }
+        
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE users SET eco_points = eco_points + ? WHERE id = ?", balanceUpdates);
+        
+        List<EcoPointsLedgerEntry> entries = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            Long userId = userIds.get(i);
+            if (updated[i] == 0) {
+                logger.warn("Skipping eco points for unknown user {}", userId);
+                continue;
+            }
+            leaderboardService.pointsChanged(userId, (Integer) balanceUpdates.get(i)[0]);
+            deltasByUser.get(userId).forEach((reason, points) -> {
+                if (points != 0) {
+                    entries.add(newLedgerEntry(userId, points, reason));
+                }
+            });
+        }
+        ecoPointsLedgerRepository.saveAll(entries);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EcoPointsLedgerEntryDTO> getLedger(Long userId, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        return ecoPointsLedgerRepository.findByUserIdOrderByIdDesc(userId, Limit.of(limit)).stream()
+                .map(entry -> new EcoPointsLedgerEntryDTO(entry.getId(), userId, entry.getPoints(),
+                        entry.getReason(), entry.getCreatedAt()))
+                .collect(Collectors.toList());
+    }
+
+    private void appendToLedger(Long userId, int points, String reason) {
+        ecoPointsLedgerRepository.save(newLedgerEntry(userId, points, reason));
+    }
+
+    private EcoPointsLedgerEntry newLedgerEntry(Long userId, int points, String reason) {
+        EcoPointsLedgerEntry entry = new EcoPointsLedgerEntry();
+        entry.setUser(userRepository.getReferenceById(userId));
+        entry.setPoints(points);
+        entry.setReason(reason);
+        return entry;
+    }
+}
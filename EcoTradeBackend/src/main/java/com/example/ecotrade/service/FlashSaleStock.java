@@ -0,0 +1,275 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.repository.FlashSaleStockRepository;
+import com.example.ecotrade.repository.FlashSaleStockRepository.Checkpoint;
+import com.example.ecotrade.repository.FlashSaleStockRepository.StockRow;
+import com.example.ecotrade.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Flash-sale stock mode: the stock of the configured products is held in lock-free counters, so
+// checkouts reserve and release units with a CAS instead of queueing on the product row lock.
+// A write-behind flush subtracts the net reservations from products.stock, and a checkpoint per
+// product lets the next startup repair stock that a crash kept from being flushed.
+// The counters are local to this instance: run flash sales on a single instance.
+@Component
+public class FlashSaleStock {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlashSaleStock.class);
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Slots are spread 64 bytes apart, so counters of different products never share a cache line
+    private static final int INT_STRIDE = 16;
+    private static final int LONG_STRIDE = 8;
+
+    @Autowired
+    private FlashSaleStockRepository flashSaleStockRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ecotrade.flash-sale.product-ids:}")
+    private List<Long> configuredProductIds;
+
+    // Orders can be dated shortly before their reservation, so startup repair looks back this much further
+    @Value("${ecotrade.flash-sale.recovery-grace:30s}")
+    private Duration recoveryGrace;
+
+    // Sorted product ids; a product's index here is its counter slot. Published once by start().
+    private volatile long[] productIds = new long[0];
+    private List<Product> products = List.of();
+    private int[] available = new int[0];
+    private long[] pending = new long[0];
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        rejectedCounter = meterRegistry.counter("ecotrade.flash.stock.rejected");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startConfigured() {
+        if (!configuredProductIds.isEmpty()) {
+            start(configuredProductIds);
+        }
+    }
+
+    // Moves the products onto counters. Their rows stay locked until the counters are published, so a
+    // regular checkout either finishes before the stock is read or sees the counters afterwards.
+    public synchronized void start(Collection<Long> ids) {
+        if (productIds.length > 0) {
+            throw new IllegalStateException("Flash-sale stock is already running");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> requested = ids.stream().distinct().sorted().toList();
+            List<StockRow> rows = new ArrayList<>(flashSaleStockRepository.lockStock(requested));
+            if (rows.size() < requested.size()) {
+                logger.warn("Flash-sale products not found and sold normally: {}", requested.stream()
+                        .filter(id -> rows.stream().noneMatch(row -> row.productId() == id)).toList());
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < rows.size(); i++) {
+                rows.set(i, recover(rows.get(i)));
+                flashSaleStockRepository.saveCheckpoint(rows.get(i).productId(), now, false);
+            }
+
+            long[] slots = new long[rows.size()];
+            int[] counters = new int[rows.size() * INT_STRIDE];
+            for (int i = 0; i < rows.size(); i++) {
+                slots[i] = rows.get(i).productId();
+                counters[i * INT_STRIDE] = rows.get(i).stock();
+            }
+            available = counters;
+            pending = new long[rows.size() * LONG_STRIDE];
+            products = productRepository.findAllById(Arrays.stream(slots).boxed().toList());
+            // Volatile write, the counters above are visible to every thread that reads the ids
+            productIds = slots;
+        });
+
+        for (long productId : productIds) {
+            Gauge.builder("ecotrade.flash.stock.available", this,
+                            stock -> stock.isFlashSale(productId) ? stock.available(productId) : Double.NaN)
+                    .tag("product", Long.toString(productId))
+                    .register(meterRegistry);
+        }
+        logger.info("Flash-sale stock started for products {}", Arrays.toString(productIds));
+    }
+
+    // A previous instance that did not shut down cleanly may have lost reservations made after its
+    // last flush: subtract every unit ordered since then. Units flushed twice err towards underselling.
+    private StockRow recover(StockRow row) {
+        Checkpoint checkpoint = flashSaleStockRepository.findCheckpoint(row.productId()).orElse(null);
+        if (checkpoint == null || checkpoint.cleanShutdown()) {
+            return row;
+        }
+        int ordered = flashSaleStockRepository.sumOrderedSince(row.productId(),
+                checkpoint.lastFlushAt().minus(recoveryGrace));
+        if (ordered == 0) {
+            return row;
+        }
+        int stock = Math.max(0, row.stock() - ordered);
+        flashSaleStockRepository.subtractStock(row.productId(), row.stock() - stock);
+        logger.warn("Flash-sale stock of product {} was not flushed before the last shutdown, stock {} -> {}",
+                row.productId(), row.stock(), stock);
+        return new StockRow(row.productId(), stock);
+    }
+
+    public boolean isFlashSale(Long productId) {
+        return productId != null && Arrays.binarySearch(productIds, productId) >= 0;
+    }
+
+    // Takes quantity units off the counter; released again if the surrounding transaction rolls back
+    public boolean tryReserve(Long productId, int quantity) {
+        int slot = slotOf(productId);
+        int index = slot * INT_STRIDE;
+        int current;
+        do {
+            current = (int) INTS.getVolatile(available, index);
+            if (current < quantity) {
+                rejectedCounter.increment();
+                return false;
+            }
+        } while (!INTS.compareAndSet(available, index, current, current - quantity));
+        LONGS.getAndAdd(pending, slot * LONG_STRIDE, (long) quantity);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        add(slot, quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // Returns units, e.g. of a cancelled order, once the surrounding transaction commits
+    public void release(Long productId, int quantity) {
+        int slot = slotOf(productId);
+        TransactionCallbacks.afterCommit(() -> add(slot, quantity));
+    }
+
+    public int available(Long productId) {
+        return (int) INTS.getVolatile(available, slotOf(productId) * INT_STRIDE);
+    }
+
+    private void add(int slot, int quantity) {
+        INTS.getAndAdd(available, slot * INT_STRIDE, quantity);
+        LONGS.getAndAdd(pending, slot * LONG_STRIDE, (long) -quantity);
+    }
+
+    private int slotOf(Long productId) {
+        int slot = Arrays.binarySearch(productIds, productId);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Product " + productId + " is not in a flash sale");
+        }
+        return slot;
+    }
+
+    // Write-behind: subtracts the net reservations since the last flush from products.stock
+    @Scheduled(fixedDelayString = "${ecotrade.flash-sale.flush-interval:500ms}")
+    public void flush() {
+        long[] ids = productIds;
+        if (ids.length == 0) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long[] taken = new long[ids.length];
+            List<StockRow> deltas = new ArrayList<>();
+            for (int slot = 0; slot < ids.length; slot++) {
+                taken[slot] = (long) LONGS.getAndSet(pending, slot * LONG_STRIDE, 0L);
+                if (taken[slot] != 0) {
+                    deltas.add(new StockRow(ids[slot], (int) taken[slot]));
+                }
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    flashSaleStockRepository.subtractStock(deltas);
+                    for (long productId : ids) {
+                        flashSaleStockRepository.saveCheckpoint(productId, startedAt, false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush flash-sale stock, retrying on next flush", e);
+                for (int slot = 0; slot < ids.length; slot++) {
+                    LONGS.getAndAdd(pending, slot * LONG_STRIDE, taken[slot]);
+                }
+                return;
+            }
+            if (!deltas.isEmpty()) {
+                productService.evictProducts(products);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Runs after the web server stopped taking requests: flushes, checks that every counter matches
+    // its row and marks the checkpoints clean so the next startup skips the repair. The products are
+    // then sold from their rows again.
+    @PreDestroy
+    public synchronized void stop() {
+        long[] ids = productIds;
+        if (ids.length == 0) {
+            return;
+        }
+        flush();
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (long productId : ids) {
+                int stock = flashSaleStockRepository.findStock(productId);
+                int counter = available(productId);
+                if (stock != counter) {
+                    logger.error("Flash-sale stock of product {} does not reconcile: counter {}, products.stock {}",
+                            productId, counter, stock);
+                }
+                flashSaleStockRepository.saveCheckpoint(productId, now, true);
+            }
+        });
+        productIds = new long[0];
+        logger.info("Flash-sale stock flushed and reconciled for products {}", Arrays.toString(ids));
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.ecotrade.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Order-statistic treap of users ranked by eco points (highest first, ties by ascending user id).
+// Every node knows the size of its subtree, so rank lookups and positional reads take O(log n)
+// expected time instead of sorting all users. Not thread-safe, LeaderboardService guards it.
+public final class LeaderboardIndex {
+
+    private final Map<Long, Integer> pointsByUser = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    public int size() {
+        return pointsByUser.size();
+    }
+
+    public Integer pointsOf(long userId) {
+        return pointsByUser.get(userId);
+    }
+
+    // Inserts the user or moves it to its new position
+    public void put(long userId, int points) {
+        Integer previous = pointsByUser.put(userId, points);
+        if (previous != null) {
+            if (previous == points) {
+                return;
+            }
+            root = delete(root, previous, userId);
+        }
+        root = insert(root, new Node(userId, points, random.nextInt()));
+    }
+
+    public boolean remove(long userId) {
+        Integer previous = pointsByUser.remove(userId);
+        if (previous == null) {
+            return false;
+        }
+        root = delete(root, previous, userId);
+        return true;
+    }
+
+    // 1-based position of the user, 0 when the user is not ranked
+    public int rankOf(long userId) {
+        Integer points = pointsByUser.get(userId);
+        if (points == null) {
+            return 0;
+        }
+        int rank = 1;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(points, userId, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left);
+                if (cmp == 0) {
+                    return rank;
+                }
+                rank++;
+                node = node.right;
+            }
+        }
+        throw new IllegalStateException("Leaderboard index is missing user " + userId);
+    }
+
+    // Up to count entries starting at the 1-based rank fromRank
+    public List<Entry> range(int fromRank, int count) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(count, size() - fromRank + 1)));
+        if (count > 0 && fromRank >= 1) {
+            collect(root, 1, fromRank, fromRank + count - 1, entries);
+        }
+        return entries;
+    }
+
+    private static void collect(Node node, int firstRank, int fromRank, int toRank, List<Entry> entries) {
+        if (node == null) {
+            return;
+        }
+        int nodeRank = firstRank + size(node.left);
+        if (fromRank < nodeRank) {
+            collect(node.left, firstRank, fromRank, toRank, entries);
+        }
+        if (fromRank <= nodeRank && nodeRank <= toRank) {
+            entries.add(new Entry(nodeRank, node.userId, node.points));
+        }
+        if (toRank > nodeRank) {
+            collect(node.right, nodeRank + 1, fromRank, toRank, entries);
+        }
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted.points, inserted.userId);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            return update(inserted);
+        }
+        if (compare(inserted.points, inserted.userId, node) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, int points, long userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(points, userId, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, points, userId);
+        } else {
+            node.right = delete(node.right, points, userId);
+        }
+        return update(node);
+    }
+
+    // Splits into the nodes ranked before (points, userId) and the rest
+    private static Node[] split(Node node, int points, long userId) {
+        if (node == null) {
+            return new Node[] { null, null };
+        }
+        if (compare(points, userId, node) <= 0) {
+            Node[] parts = split(node.left, points, userId);
+            node.left = parts[1];
+            return new Node[] { parts[0], update(node) };
+        }
+        Node[] parts = split(node.right, points, userId);
+        node.right = parts[0];
+        return new Node[] { update(node), parts[1] };
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    // Negative when (points, userId) ranks before the node
+    private static int compare(int points, long userId, Node node) {
+        int byPoints = Integer.compare(node.points, points);
+        return byPoints != 0 ? byPoints : Long.compare(userId, node.userId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    public record Entry(int rank, long userId, int points) {
+    }
+
+    private static final class Node {
+        private final long userId;
+        private final int points;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long userId, int points, int priority) {
+            this.userId = userId;
+            this.points = points;
+            this.priority = priority;
+        }
+    }
+}
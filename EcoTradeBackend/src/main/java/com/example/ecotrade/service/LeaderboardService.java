@@ -0,0 +1,179 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.LeaderboardEntryDTO;
+import com.example.ecotrade.exception.ResourceNotFoundException;
+import com.example.ecotrade.repository.UserRepository;
+import com.example.ecotrade.repository.UserRepository.UserNameView;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Community leaderboard served from an in-memory ranked index instead of sorting all users per request.
+// Balance changes are applied as deltas once their transaction commits, so the index never shows
+// points that were rolled back. It is loaded from the users table on startup and resynced periodically,
+// which also corrects users whose balance was written around the services.
+@Service
+@Timed(value = "ecotrade.service", histogram = true)
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReadWriteGuard guard = new ReadWriteGuard();
+    private LeaderboardIndex index = new LeaderboardIndex();
+
+    // Open changes per user until their transaction ends, and the users changed since the running
+    // rebuild started; both guarded by the map's monitor
+    private final Map<Long, Integer> openChanges = new HashMap<>();
+    private Set<Long> changedDuringRebuild;
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("ecotrade.leaderboard.users", this, service -> service.guard.read(() -> service.index.size()));
+    }
+
+    // The snapshot cannot tell whether a change that commits while it is read is included, so users
+    // with a change open during the rebuild keep their live entry, which has seen each of their changes
+    // exactly once; the next resync corrects them
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ecotrade.leaderboard.resync-interval:10m}",
+               fixedDelayString = "${ecotrade.leaderboard.resync-interval:10m}")
+    public synchronized void rebuild() {
+        Set<Long> changed;
+        synchronized (openChanges) {
+            changed = new HashSet<>(openChanges.keySet());
+            changedDuringRebuild = changed;
+        }
+        LeaderboardIndex rebuilt = new LeaderboardIndex();
+        jdbcTemplate.query("SELECT id, eco_points FROM users",
+                rs -> {
+                    rebuilt.put(rs.getLong(1), rs.getInt(2));
+                });
+        guard.write(() -> {
+            synchronized (openChanges) {
+                for (Long userId : changed) {
+                    Integer points = index.pointsOf(userId);
+                    if (points == null) {
+                        rebuilt.remove(userId);
+                    } else {
+                        rebuilt.put(userId, points);
+                    }
+                }
+                changedDuringRebuild = null;
+            }
+            index = rebuilt;
+        });
+        logger.info("Leaderboard rebuilt with {} users", rebuilt.size());
+    }
+
+    public void userAdded(Long userId, int ecoPoints) {
+        change(userId, () -> index.put(userId, ecoPoints));
+    }
+
+    public void userRemoved(Long userId) {
+        change(userId, () -> index.remove(userId));
+    }
+
+    public void pointsChanged(Long userId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        change(userId, () -> {
+            Integer points = index.pointsOf(userId);
+            if (points == null) {
+                // Added around the services since the last rebuild, the next resync picks it up
+                logger.debug("Ignoring eco points change for unranked user {}", userId);
+            } else {
+                index.put(userId, points + delta);
+            }
+        });
+    }
+
+    // Applies the update once the transaction commits and keeps the user marked as changing until it ends
+    private void change(Long userId, Runnable update) {
+        synchronized (openChanges) {
+            openChanges.merge(userId, 1, Integer::sum);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(userId);
+            }
+        }
+        TransactionCallbacks.afterCommit(() -> guard.write(update));
+        TransactionCallbacks.afterCompletion(() -> {
+            synchronized (openChanges) {
+                openChanges.computeIfPresent(userId, (id, count) -> count == 1 ? null : count - 1);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaderboardEntryDTO> getTop(int limit) {
+        return withNames(guard.read(() -> index.range(1, limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public LeaderboardEntryDTO getRank(Long userId) {
+        List<LeaderboardIndex.Entry> entries = guard.read(() -> {
+            int rank = index.rankOf(userId);
+            return rank == 0 ? List.<LeaderboardIndex.Entry>of() : index.range(rank, 1);
+        });
+        if (entries.isEmpty()) {
+            throw new ResourceNotFoundException("User not found on the leaderboard with id: " + userId);
+        }
+        return withNames(entries).get(0);
+    }
+
+    // The user with up to radius neighbours ranked directly above and below
+    @Transactional(readOnly = true)
+    public List<LeaderboardEntryDTO> getAround(Long userId, int radius) {
+        List<LeaderboardIndex.Entry> entries = guard.read(() -> {
+            int rank = index.rankOf(userId);
+            if (rank == 0) {
+                return List.<LeaderboardIndex.Entry>of();
+            }
+            int from = Math.max(1, rank - radius);
+            return index.range(from, rank + radius - from + 1);
+        });
+        if (entries.isEmpty()) {
+            throw new ResourceNotFoundException("User not found on the leaderboard with id: " + userId);
+        }
+        return withNames(entries);
+    }
+
+    // Names are looked up by primary key for the handful of users returned
+    private List<LeaderboardEntryDTO> withNames(List<LeaderboardIndex.Entry> entries) {
+        Map<Long, String> names = new HashMap<>();
+        if (!entries.isEmpty()) {
+            for (UserNameView view : userRepository.findNamesByIds(
+                    entries.stream().map(LeaderboardIndex.Entry::userId).collect(Collectors.toList()))) {
+                names.put(view.getId(), view.getName());
+            }
+        }
+        return entries.stream()
+                .map(entry -> new LeaderboardEntryDTO(entry.rank(), entry.userId(), names.get(entry.userId()),
+                        entry.points()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.PlantReminderDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+// Writes reminders to the application log until a notification channel is wired in
+@Component
+public class LoggingPlantReminderSink implements PlantReminderSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingPlantReminderSink.class);
+
+    @Override
+    public void deliver(List<PlantReminderDTO> reminders) {
+        for (PlantReminderDTO reminder : reminders) {
+            if (reminder.isOverdue()) {
+                logger.info("Reminder for user {}: {} of plant {} ({}) is overdue since {}", reminder.getUserId(),
+                        reminder.getCareType(), reminder.getPlantId(), reminder.getPlantName(), reminder.getWindowEnd());
+                continue;
+            }
+            logger.info("Reminder for user {}: {} of plant {} ({}) is due between {} and {}", reminder.getUserId(),
+                    reminder.getCareType(), reminder.getPlantId(), reminder.getPlantName(), reminder.getWindowStart(),
+                    reminder.getWindowEnd());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.exception.ResourceNotFoundException;
+import com.example.ecotrade.model.Order;
+import com.example.ecotrade.model.OrderItem;
+import com.example.ecotrade.model.OrderOutboxEvent;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.repository.OrderRepository;
+import com.example.ecotrade.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Side effects of order status changes. OrderOutbox runs them after the change has committed,
+// inside the transaction that marks the outbox event DONE, so each one is applied exactly once.
+@Component
+public class OrderEventHandler {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private FlashSaleStock flashSaleStock;
+
+    @Autowired
+    private EcoPointsService ecoPointsService;
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private UserSummaryService userSummaryService;
+
+    // Order status at which the plants of an order are created for the user
+    @Value("${ecotrade.plants.materialize-on-status:PENDING}")
+    private Order.OrderStatus plantMaterializationStatus;
+
+    public void handle(OrderOutboxEvent event) {
+        Order order = orderRepository.findById(event.getOrderId())
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + event.getOrderId()));
+
+        switch (event.getOrderStatus()) {
+            case PENDING -> userSummaryService.orderPlaced(order);
+            case DELIVERED -> {
+                if (order.getEcoPointsEarned() != null && !Boolean.TRUE.equals(event.getPointsAwarded())) {
+                    ecoPointsService.addPoints(order.getUser().getId(), order.getEcoPointsEarned(),
+                            "Order #" + order.getId() + " delivered");
+                }
+            }
+            case CANCELLED -> {
+                restoreStock(order);
+                userSummaryService.orderCancelled(order);
+            }
+            default -> {
+            }
+        }
+
+        if (event.getOrderStatus() == plantMaterializationStatus
+                && event.getOrderStatus() != Order.OrderStatus.CANCELLED) {
+            plantService.materializePlantsForOrder(order);
+        }
+    }
+
+    // Restores product stock for each item, in ascending id order like the reservation
+    private void restoreStock(Order order) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        List<Product> updatedProducts = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            Long productId = item.getProduct().getId();
+            if (flashSaleStock.isFlashSale(productId)) {
+                flashSaleStock.release(productId, item.getQuantity());
+            } else {
+                quantities.merge(productId, item.getQuantity(), Integer::sum);
+                updatedProducts.add(item.getProduct());
+            }
+        }
+        quantities.forEach(productRepository::incrementStock);
+        productService.evictProducts(updatedProducts);
+    }
+}
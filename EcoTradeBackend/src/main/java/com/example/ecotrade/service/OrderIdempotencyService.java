@@ -0,0 +1,195 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.exception.IdempotencyConflictException;
+import com.example.ecotrade.repository.IdempotencyKeyRepository;
+import com.example.ecotrade.repository.IdempotencyKeyRepository.KeyRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Order submission with an Idempotency-Key: a retried request gets the order created by the first one
+// instead of placing it again. Results are remembered per user and key in a bounded cache; a duplicate
+// that arrives while the first request is still running waits for its result. With the database store
+// the key is also claimed in the order's transaction, which deduplicates across instances and restarts.
+@Service
+@Timed(value = "ecotrade.service", histogram = true)
+public class OrderIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    public enum Store { MEMORY, DATABASE }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ecotrade.idempotency.store:MEMORY}")
+    private Store store;
+
+    @Value("${ecotrade.idempotency.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${ecotrade.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${ecotrade.idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    // userId:key -> the first request's result, completed when its transaction has committed
+    private Cache<String, Attempt> attempts;
+    private Counter replayedCounter;
+
+    @PostConstruct
+    void init() {
+        attempts = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<String, Attempt>build(), "orderIdempotencyKeys");
+        replayedCounter = meterRegistry.counter("ecotrade.idempotency.replayed");
+    }
+
+    public static void checkKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    public IdempotentOrder createOrder(String idempotencyKey, OrderDTO orderDTO) {
+        checkKey(idempotencyKey);
+        if (orderDTO.getUserId() == null) {
+            throw new IllegalArgumentException("User id is required");
+        }
+        String requestHash = hash(orderDTO);
+        Attempt attempt = new Attempt(requestHash, new CompletableFuture<>());
+        Attempt first = attempts.asMap().putIfAbsent(orderDTO.getUserId() + ":" + idempotencyKey, attempt);
+        if (first != null) {
+            checkSameRequest(first.requestHash(), requestHash);
+            replayedCounter.increment();
+            return new IdempotentOrder(await(first), true);
+        }
+
+        try {
+            IdempotentOrder order = store == Store.DATABASE
+                    ? createClaimed(orderDTO.getUserId(), idempotencyKey, requestHash, orderDTO)
+                    : new IdempotentOrder(orderService.createOrder(orderDTO), false);
+            attempt.result().complete(order.order());
+            return order;
+        } catch (RuntimeException e) {
+            // Duplicates already waiting get the same error; a later retry runs the order again
+            attempts.asMap().remove(orderDTO.getUserId() + ":" + idempotencyKey, attempt);
+            attempt.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // The key row is inserted before the order, so a duplicate on another instance waits on its
+    // primary key until this transaction ends, then replays the committed order
+    private IdempotentOrder createClaimed(Long userId, String idempotencyKey, String requestHash, OrderDTO orderDTO) {
+        OrderDTO created = transactionTemplate.execute(status -> {
+            if (!idempotencyKeyRepository.claim(userId, idempotencyKey, requestHash)) {
+                return null;
+            }
+            OrderDTO order = orderService.createOrder(orderDTO);
+            idempotencyKeyRepository.setOrderId(userId, idempotencyKey, order.getId());
+            return order;
+        });
+        if (created != null) {
+            return new IdempotentOrder(created, false);
+        }
+
+        KeyRow row = idempotencyKeyRepository.find(userId, idempotencyKey)
+                .orElseThrow(() -> new IdempotencyConflictException(
+                        "Idempotency-Key was released while this request was waiting, retry the request"));
+        checkSameRequest(row.requestHash(), requestHash);
+        if (row.orderId() == null) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        replayedCounter.increment();
+        return new IdempotentOrder(orderService.getOrderById(row.orderId()), true);
+    }
+
+    private OrderDTO await(Attempt first) {
+        try {
+            return first.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for a request with this Idempotency-Key");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void checkSameRequest(String firstHash, String requestHash) {
+        if (!firstHash.equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different order");
+        }
+    }
+
+    private String hash(OrderDTO orderDTO) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderDTO));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash order request", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ecotrade.idempotency.cleanup-interval:1h}")
+    public void deleteExpiredKeys() {
+        if (store != Store.DATABASE) {
+            return;
+        }
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    public record IdempotentOrder(OrderDTO order, boolean replayed) {
+    }
+
+    private record Attempt(String requestHash, CompletableFuture<OrderDTO> result) {
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.model.Order;
+import com.example.ecotrade.model.OrderOutboxEvent;
+import com.example.ecotrade.model.OrderOutboxEvent.State;
+import com.example.ecotrade.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Transactional outbox for order status changes: OrderService appends an event in the transaction
+// that changes the order, and a dispatcher runs the side effects (OrderEventHandler) on a worker pool
+// once that transaction has committed. The events of one order are handled in the order they were
+// written, different orders in parallel. Failed events are retried with exponential backoff and
+// parked as FAILED after the last attempt. The dispatcher is woken after each commit and also polls,
+// which picks up events left behind by a restart or written by another instance.
+@Component
+public class OrderOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutbox.class);
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private OrderEventHandler orderEventHandler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ecotrade.outbox.workers:4}")
+    private int workers;
+
+    @Value("${ecotrade.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ecotrade.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${ecotrade.outbox.retry-backoff:1s}")
+    private Duration retryBackoff;
+
+    @Value("${ecotrade.outbox.max-retry-backoff:5m}")
+    private Duration maxRetryBackoff;
+
+    @Value("${ecotrade.outbox.retention:7d}")
+    private Duration retention;
+
+    private ExecutorService workerPool;
+    private ExecutorService waker;
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private volatile boolean running;
+    private Counter processedCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void start() {
+        workerPool = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("order-outbox-worker-", 0).daemon().factory());
+        waker = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("order-outbox-dispatcher").daemon().factory());
+        meterRegistry.gauge("ecotrade.outbox.pending", orderOutboxRepository,
+                repository -> repository.countByState(State.PENDING));
+        processedCounter = meterRegistry.counter("ecotrade.outbox.processed");
+        retriedCounter = meterRegistry.counter("ecotrade.outbox.retried");
+        failedCounter = meterRegistry.counter("ecotrade.outbox.failed");
+        running = true;
+    }
+
+    // Events that are still pending stay in the table and are dispatched after the next startup
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        waker.shutdown();
+        waker.awaitTermination(10, TimeUnit.SECONDS);
+        workerPool.shutdown();
+        workerPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Must be called in the transaction that moved the order to its current status
+    public void append(Order order) {
+        appendAll(List.of(order.getId()), order.getStatus(), false);
+    }
+
+    // For orders moved to the same status at once; pointsAwarded marks deliveries whose points were
+    // already awarded by the caller
+    public void appendAll(Collection<Long> orderIds, Order.OrderStatus status, boolean pointsAwarded) {
+        List<OrderOutboxEvent> events = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            OrderOutboxEvent event = new OrderOutboxEvent();
+            event.setOrderId(orderId);
+            event.setOrderStatus(status);
+            event.setPointsAwarded(pointsAwarded);
+            events.add(event);
+        }
+        orderOutboxRepository.saveAll(events);
+
+        TransactionCallbacks.afterCommit(this::wakeUp);
+    }
+
+    public boolean hasPendingEvents(Long orderId) {
+        return orderOutboxRepository.existsByOrderIdAndState(orderId, State.PENDING);
+    }
+
+    // Commits that arrive while a round is running request one more round, not one each
+    private void wakeUp() {
+        if (!running || !wakeRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            waker.execute(() -> {
+                wakeRequested.set(false);
+                dispatchPending();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeRequested.set(false);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${ecotrade.outbox.poll-interval:5s}",
+               fixedDelayString = "${ecotrade.outbox.poll-interval:5s}")
+    public void poll() {
+        if (running) {
+            dispatchPending();
+        }
+    }
+
+    // Handles every event that is due, one round at a time per instance; returns the number handled
+    public int dispatchPending() {
+        dispatchLock.lock();
+        try {
+            int total = 0;
+            while (true) {
+                List<OrderOutboxEvent> events = orderOutboxRepository.findDue(
+                        State.PENDING, LocalDateTime.now(), Limit.of(batchSize));
+                int handled = dispatch(events);
+                total += handled;
+                if (events.size() < batchSize || handled == 0) {
+                    return total;
+                }
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private int dispatch(List<OrderOutboxEvent> events) {
+        Map<Long, List<OrderOutboxEvent>> eventsByOrder = new LinkedHashMap<>();
+        for (OrderOutboxEvent event : events) {
+            eventsByOrder.computeIfAbsent(event.getOrderId(), orderId -> new ArrayList<>()).add(event);
+        }
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (List<OrderOutboxEvent> orderEvents : eventsByOrder.values()) {
+            results.add(workerPool.submit(() -> dispatchInOrder(orderEvents)));
+        }
+        int handled = 0;
+        for (Future<Integer> result : results) {
+            try {
+                handled += result.get();
+            } catch (ExecutionException e) {
+                logger.error("Order outbox worker failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return handled;
+    }
+
+    // Stops at the first event that is not due or fails, later events of the order wait for it
+    private int dispatchInOrder(List<OrderOutboxEvent> orderEvents) {
+        LocalDateTime now = LocalDateTime.now();
+        int handled = 0;
+        for (OrderOutboxEvent event : orderEvents) {
+            if (event.getNextAttemptAt().isAfter(now) || !handle(event.getId())) {
+                break;
+            }
+            handled++;
+        }
+        return handled;
+    }
+
+    private boolean handle(Long eventId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OrderOutboxEvent event = orderOutboxRepository.findByIdForUpdate(eventId).orElse(null);
+                if (event == null || event.getState() != State.PENDING) {
+                    // Handled by another instance in the meantime
+                    return;
+                }
+                orderEventHandler.handle(event);
+                event.setState(State.DONE);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setProcessedAt(LocalDateTime.now());
+            });
+            processedCounter.increment();
+            return true;
+        } catch (RuntimeException e) {
+            recordFailure(eventId, e);
+            return false;
+        }
+    }
+
+    private void recordFailure(Long eventId, RuntimeException failure) {
+        transactionTemplate.executeWithoutResult(status -> {
+            OrderOutboxEvent event = orderOutboxRepository.findByIdForUpdate(eventId).orElse(null);
+            if (event == null || event.getState() != State.PENDING) {
+                return;
+            }
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(truncate(String.valueOf(failure.getMessage()), 1000));
+            if (attempts >= maxAttempts) {
+                event.setState(State.FAILED);
+                event.setProcessedAt(LocalDateTime.now());
+                failedCounter.increment();
+                logger.error("Giving up on {} event {} of order {} after {} attempts",
+                        event.getOrderStatus(), eventId, event.getOrderId(), attempts, failure);
+            } else {
+                Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+                event.setNextAttemptAt(LocalDateTime.now().plus(
+                        backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff));
+                retriedCounter.increment();
+                logger.warn("{} event {} of order {} failed (attempt {}), retrying at {}: {}",
+                        event.getOrderStatus(), eventId, event.getOrderId(), attempts, event.getNextAttemptAt(),
+                        failure.getMessage());
+            }
+        });
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    @Scheduled(fixedDelayString = "${ecotrade.outbox.cleanup-interval:1h}")
+    public void deleteProcessedEvents() {
+        Integer deleted = transactionTemplate.execute(status -> orderOutboxRepository.deleteProcessedBefore(
+                State.DONE, LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            logger.info("Deleted {} processed order outbox events", deleted);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ecotrade.service;
 
+import com.example.ecotrade.dto.BulkResultDTO;
 import com.example.ecotrade.dto.OrderDTO;
 import com.example.ecotrade.dto.OrderItemDTO;
 import com.example.ecotrade.exception.ResourceNotFoundException;
@@ -8,17 +9,32 @@ import com.example.ecotrade.model.OrderItem;
 import com.example.ecotrade.model.Product;
 import com.example.ecotrade.model.User;
 import com.example.ecotrade.repository.OrderRepository;
+import com.example.ecotrade.repository.OrderRepository.TransitionCandidate;
 import com.example.ecotrade.repository.ProductRepository;
 import com.example.ecotrade.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ecotrade.service", histogram = true)
 public class OrderService {
 
+    // Keeps IN lists well below driver and database parameter limits
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -28,20 +44,35 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EcoPointsService ecoPointsService;
+
+    @Autowired
+    private FlashSaleStock flashSaleStock;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Transactional(readOnly = true)
     public List<OrderDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
+        return orderRepository.findAllWithItems().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findByIdWithItems(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
         return convertToDTO(order);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserId(userId).stream()
+        return orderRepository.findByUserIdWithItems(userId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -76,14 +107,12 @@ public class OrderService {
         // Save order first to get ID
         Order savedOrder = orderRepository.save(order);
         
+        // Reserve stock for all items in one batch before creating the order items
+        Map<Long, Product> products = reserveStock(orderDTO.getItems());
+        
         // Process each item
         for (OrderItemDTO itemDTO : orderDTO.getItems()) {
-            Product product = productRepository.findById(itemDTO.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + itemDTO.getProductId()));
-            
-            if (product.getStock() < itemDTO.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-            }
+            Product product = products.get(itemDTO.getProductId());
             
             // Create order item
             OrderItem orderItem = new OrderItem();
@@ -95,27 +124,24 @@ public class OrderService {
             
             // Add item to order
             savedOrder.addItem(orderItem);
-            
-            // Update product stock
-            product.setStock(product.getStock() - itemDTO.getQuantity());
-            productRepository.save(product);
         }
         
         // Update user's EcoPoints
         if (orderDTO.getEcoPointsUsed() > 0) {
-            user.setEcoPoints(user.getEcoPoints() - orderDTO.getEcoPointsUsed());
+            ecoPointsService.deductPoints(user.getId(), orderDTO.getEcoPointsUsed(),
+                    "Points redeemed on order #" + savedOrder.getId());
         }
         
         // Add EcoPoints for plastic recycling if applicable
         if (orderDTO.getUsePlastic() && orderDTO.getPlasticDetails() != null) {
             int extraPoints = (int) Math.round(orderDTO.getPlasticDetails().getWeight() * 10);
-            user.setEcoPoints(user.getEcoPoints() + extraPoints);
+            ecoPointsService.addPoints(user.getId(), extraPoints,
+                    "Plastic recycled with order #" + savedOrder.getId());
         }
         
-        userRepository.save(user);
-        
         // Save order again with all items
         Order finalOrder = orderRepository.save(savedOrder);
+        orderOutbox.append(finalOrder);
         return convertToDTO(finalOrder);
     }
 
@@ -143,6 +169,7 @@ public class OrderService {
 
         order.setStatus(Order.OrderStatus.CONFIRMED);
         Order updatedOrder = orderRepository.save(order);
+        orderOutbox.append(updatedOrder);
         return convertToDTO(updatedOrder);
     }
 
@@ -157,6 +184,7 @@ public class OrderService {
 
         order.setStatus(Order.OrderStatus.SHIPPED);
         Order updatedOrder = orderRepository.save(order);
+        orderOutbox.append(updatedOrder);
         return convertToDTO(updatedOrder);
     }
 
@@ -169,17 +197,78 @@ public class OrderService {
             throw new IllegalArgumentException("Order cannot be delivered in current status: " + order.getStatus());
         }
 
+        // The eco points are awarded by the outbox dispatcher (OrderEventHandler)
         order.setStatus(Order.OrderStatus.DELIVERED);
-        
-        // Award eco points to user
-        User user = order.getUser();
-        user.setEcoPoints(user.getEcoPoints() + order.getEcoPointsEarned());
-        userRepository.save(user);
-
         Order updatedOrder = orderRepository.save(order);
+        orderOutbox.append(updatedOrder);
         return convertToDTO(updatedOrder);
     }
 
+    // Moves many orders to CONFIRMED, SHIPPED or DELIVERED with set-based updates. Orders that are not
+    // in the required previous status are skipped and reported, like the single transitions reject them.
+    // The eco points of delivered orders are awarded with one balance update per user.
+    @Transactional
+    public BulkResultDTO transitionOrders(List<Long> ids, Order.OrderStatus status) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one order id is required");
+        }
+        Order.OrderStatus requiredStatus = switch (status) {
+            case CONFIRMED -> Order.OrderStatus.PENDING;
+            case SHIPPED -> Order.OrderStatus.CONFIRMED;
+            case DELIVERED -> Order.OrderStatus.SHIPPED;
+            case null, default -> throw new IllegalArgumentException("Orders cannot be moved to status " + status + " in bulk");
+        };
+        
+        // Sorted ids make every bulk transition lock rows in the same order
+        List<Long> sortedIds = new ArrayList<>(new TreeSet<>(ids));
+        BulkResultDTO result = new BulkResultDTO();
+        Map<Long, Map<String, Integer>> pointsByUser = new HashMap<>();
+        
+        for (int from = 0; from < sortedIds.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, sortedIds.size()));
+            
+            List<TransitionCandidate> candidates = orderRepository.findTransitionCandidatesForUpdate(chunk, requiredStatus);
+            List<Long> movedIds = new ArrayList<>(candidates.size());
+            for (TransitionCandidate candidate : candidates) {
+                movedIds.add(candidate.getId());
+                if (status == Order.OrderStatus.DELIVERED && candidate.getEcoPointsEarned() != null) {
+                    // One ledger entry per order, exactly like a single delivery
+                    pointsByUser.computeIfAbsent(candidate.getUserId(), userId -> new HashMap<>())
+                            .put("Order #" + candidate.getId() + " delivered", candidate.getEcoPointsEarned());
+                }
+            }
+            
+            if (!movedIds.isEmpty()) {
+                orderRepository.updateStatus(movedIds, status);
+                orderOutbox.appendAll(movedIds, status, status == Order.OrderStatus.DELIVERED);
+                result.getSucceeded().addAll(movedIds);
+            }
+            if (movedIds.size() < chunk.size()) {
+                recordSkipped(chunk, new HashSet<>(movedIds), status, result);
+            }
+        }
+        
+        if (!pointsByUser.isEmpty()) {
+            ecoPointsService.applyDeltas(pointsByUser);
+        }
+        return result;
+    }
+    
+    private void recordSkipped(List<Long> chunk, Set<Long> movedIds, Order.OrderStatus status, BulkResultDTO result) {
+        Map<Long, Order.OrderStatus> statuses = new HashMap<>();
+        orderRepository.findStatusesByIds(chunk).forEach(view -> statuses.put(view.getId(), view.getStatus()));
+        String action = status.name().toLowerCase();
+        for (Long id : chunk) {
+            if (movedIds.contains(id)) {
+                continue;
+            }
+            Order.OrderStatus current = statuses.get(id);
+            result.getFailed().put(id, current == null
+                    ? "Order not found with id: " + id
+                    : "Order cannot be " + action + " in current status: " + current);
+        }
+    }
+
     @Transactional
     public OrderDTO cancelOrder(Long id) {
         Order order = orderRepository.findById(id)
@@ -189,15 +278,10 @@ public class OrderService {
             throw new IllegalArgumentException("Order cannot be cancelled in current status: " + order.getStatus());
         }
 
-        // Restore product stock for each item
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
-        }
-
+        // The stock is restored by the outbox dispatcher (OrderEventHandler)
         order.setStatus(Order.OrderStatus.CANCELLED);
         Order updatedOrder = orderRepository.save(order);
+        orderOutbox.append(updatedOrder);
         return convertToDTO(updatedOrder);
     }
 
@@ -209,10 +293,65 @@ public class OrderService {
         if (order.getStatus() != Order.OrderStatus.CANCELLED) {
             throw new IllegalArgumentException("Only cancelled orders can be deleted");
         }
+        // The cancellation must have restored the stock before the items go away
+        if (orderOutbox.hasPendingEvents(id)) {
+            throw new IllegalArgumentException("Order is still being cancelled, try again shortly");
+        }
 
         orderRepository.delete(order);
     }
 
+    // Locks every product of the order in ascending id order, then decrements stock with
+    // conditional updates so two checkouts can neither oversell nor deadlock each other.
+    // Flash-sale products skip the row lock and are reserved on their in-memory counters.
+    private Map<Long, Product> reserveStock(List<OrderItemDTO> items) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        SortedMap<Long, Integer> flashQuantities = new TreeMap<>();
+        for (OrderItemDTO itemDTO : items) {
+            if (itemDTO.getQuantity() == null || itemDTO.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for product: " + itemDTO.getProductId());
+            }
+            (flashSaleStock.isFlashSale(itemDTO.getProductId()) ? flashQuantities : quantities)
+                    .merge(itemDTO.getProductId(), itemDTO.getQuantity(), Integer::sum);
+        }
+        
+        Map<Long, Product> products = new HashMap<>();
+        if (!quantities.isEmpty()) {
+            productRepository.findAllByIdForUpdate(quantities.keySet())
+                    .forEach(product -> products.put(product.getId(), product));
+        }
+        
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + entry.getKey());
+            }
+            
+            // The loaded entities keep their old stock value; nothing else in the order reads it
+            if (productRepository.decrementStock(product.getId(), entry.getValue()) == 0) {
+                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+            }
+        }
+        productService.evictProducts(products.values());
+        
+        if (!flashQuantities.isEmpty()) {
+            Map<Long, Product> flashProducts = productRepository.findAllById(flashQuantities.keySet()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            for (Map.Entry<Long, Integer> entry : flashQuantities.entrySet()) {
+                Product product = flashProducts.get(entry.getKey());
+                if (product == null) {
+                    throw new ResourceNotFoundException("Product not found with id: " + entry.getKey());
+                }
+                // Units taken here are handed back if the order's transaction rolls back
+                if (!flashSaleStock.tryReserve(product.getId(), entry.getValue())) {
+                    throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+                }
+            }
+            products.putAll(flashProducts);
+        }
+        return products;
+    }
+
     private OrderDTO convertToDTO(Order order) {
         OrderDTO orderDTO = new OrderDTO();
         orderDTO.setId(order.getId());
@@ -0,0 +1,119 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.repository.PlantGrowthStageRepository;
+import com.example.ecotrade.repository.PlantGrowthStageRepository.StageBucket;
+import com.example.ecotrade.repository.PlantGrowthStageRepository.StageChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Recomputes the growth stage of every plant from the days since planting, so plants nobody touches
+// still move on. Plants are walked in id order in chunks, each in its own short transaction that locks
+// the chunk, moves the owners' stage counters and sets all stages with one UPDATE.
+@Component
+public class PlantGrowthStageJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlantGrowthStageJob.class);
+
+    @Autowired
+    private PlantGrowthStageRepository plantGrowthStageRepository;
+
+    @Autowired
+    private UserSummaryService userSummaryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ecotrade.plant-stages.chunk-size:1000}")
+    private int chunkSize;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private Timer runTimer;
+    private Counter scannedCounter;
+    private Counter updatedCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        runTimer = meterRegistry.timer("ecotrade.plant.stages.recompute");
+        scannedCounter = meterRegistry.counter("ecotrade.plant.stages.scanned");
+        updatedCounter = meterRegistry.counter("ecotrade.plant.stages.updated");
+    }
+
+    // Stage thresholds in days since planting: under 14 Seedling, under 45 Young Plant, under 90 Mature Plant
+    static List<StageBucket> stageBuckets(LocalDate today) {
+        return List.of(
+                new StageBucket("Seedling", today.minusDays(14)),
+                new StageBucket("Young Plant", today.minusDays(45)),
+                new StageBucket("Mature Plant", today.minusDays(90)),
+                new StageBucket("Fully Grown", null));
+    }
+
+    // Returns the number of plants whose stage changed; a run already in progress is not started twice
+    @Scheduled(cron = "${ecotrade.plant-stages.cron:0 30 2 * * *}")
+    public int recomputeStages() {
+        if (!runLock.tryLock()) {
+            return 0;
+        }
+        try {
+            long startedAt = System.nanoTime();
+            List<StageBucket> buckets = stageBuckets(LocalDate.now());
+            long afterId = 0;
+            long scanned = 0;
+            int updated = 0;
+            while (true) {
+                long from = afterId;
+                Chunk chunk = transactionTemplate.execute(status -> recomputeChunk(from, buckets));
+                if (chunk == null) {
+                    break;
+                }
+                scanned += chunk.scanned();
+                updated += chunk.updated();
+                afterId = chunk.lastId();
+            }
+
+            long elapsedNanos = System.nanoTime() - startedAt;
+            runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            logger.info("Recomputed growth stages of {} plants in {} ms ({} plants/s), {} changed", scanned,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    elapsedNanos > 0 ? scanned * 1_000_000_000L / elapsedNanos : scanned, updated);
+            return updated;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private Chunk recomputeChunk(long afterId, List<StageBucket> buckets) {
+        List<Long> ids = plantGrowthStageRepository.lockNextChunk(afterId, chunkSize);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        long lastId = ids.get(ids.size() - 1);
+        List<StageChange> changes = plantGrowthStageRepository.findStageChanges(afterId, lastId, buckets);
+        int updated = 0;
+        if (!changes.isEmpty()) {
+            userSummaryService.plantStagesChanged(changes);
+            updated = plantGrowthStageRepository.updateStages(afterId, lastId, buckets);
+        }
+        scannedCounter.increment(ids.size());
+        updatedCounter.increment(updated);
+        return new Chunk(lastId, ids.size(), updated);
+    }
+
+    private record Chunk(long lastId, int scanned, int updated) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.PlantReminderDTO;
+import com.example.ecotrade.model.Plant;
+import com.example.ecotrade.repository.PlantReminderRepository;
+import com.example.ecotrade.repository.PlantReminderRepository.CareDates;
+import com.example.ecotrade.repository.PlantReminderRepository.SentReminder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Watering and fertilizing reminders. The day each plant's next regular care window opens is kept in
+// a timing wheel indexed by day, so the daily run only touches the plants that come due instead of
+// scanning the plants table. The wheel is loaded on startup and updated when a plant is created,
+// changed, cared for or deleted; due plants are checked against the table before they are reminded,
+// which covers plants changed around the services. Care a plant never had, e.g. a plant from an order,
+// is counted from its planting date. Each care date is reminded once: sent reminders are recorded, so
+// loading the wheel after a restart skips them, and a window that closed before its reminder went out
+// is reminded late, as overdue. The index is per instance: run the reminders on a single instance.
+@Service
+public class PlantReminderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlantReminderService.class);
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    // Regular care windows in days since the last watering or fertilizing, which also earn bonus points
+    public enum CareType {
+        WATERING(5, 9, CareDates::lastWatered),
+        FERTILIZING(25, 35, CareDates::lastFertilized);
+
+        private final int windowStartDays;
+        private final int windowEndDays;
+        private final Function<CareDates, LocalDate> lastCared;
+
+        CareType(int windowStartDays, int windowEndDays, Function<CareDates, LocalDate> lastCared) {
+            this.windowStartDays = windowStartDays;
+            this.windowEndDays = windowEndDays;
+            this.lastCared = lastCared;
+        }
+
+        public boolean isRegular(long daysSinceLastCare) {
+            return daysSinceLastCare >= windowStartDays && daysSinceLastCare <= windowEndDays;
+        }
+    }
+
+    private static final CareType[] CARE_TYPES = CareType.values();
+
+    @Autowired
+    private PlantReminderRepository plantReminderRepository;
+
+    @Autowired
+    private List<PlantReminderSink> sinks;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Keyed by plant id and care type, see key(); one tick per epoch day
+    private final TimingWheel wheel = new TimingWheel(LocalDate.now().toEpochDay());
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("ecotrade.reminders.scheduled", this, service -> service.scheduledCount());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int[] plants = new int[1];
+        plantReminderRepository.forEachUnremindedCareDates(dates -> {
+            synchronized (wheel) {
+                for (CareType type : CARE_TYPES) {
+                    schedule(dates, type);
+                }
+            }
+            plants[0]++;
+        });
+        logger.info("Plant reminders loaded for {} plants", plants[0]);
+    }
+
+    // Takes effect when the transaction commits
+    public void plantsAdded(Collection<Plant> plants) {
+        List<CareDates> added = plants.stream()
+                .map(plant -> careDates(plant, plant.getLastWatered(), plant.getLastFertilized(),
+                        plant.getPlantingDate()))
+                .toList();
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (wheel) {
+                for (CareDates dates : added) {
+                    for (CareType type : CARE_TYPES) {
+                        schedule(dates, type);
+                    }
+                }
+            }
+        });
+    }
+
+    // Called with the care dates the plant had before it was saved; its planting date did not change
+    public void plantChanged(Plant plant, LocalDate previousWatered, LocalDate previousFertilized) {
+        plantChanged(plant, previousWatered, previousFertilized, plant.getPlantingDate());
+    }
+
+    // Only care types whose date changed are rescheduled, so a reminder already sent is not repeated.
+    // Takes effect when the transaction commits.
+    public void plantChanged(Plant plant, LocalDate previousWatered, LocalDate previousFertilized,
+                             LocalDate previousPlantingDate) {
+        CareDates dates = careDates(plant, plant.getLastWatered(), plant.getLastFertilized(), plant.getPlantingDate());
+        CareDates previous = careDates(plant, previousWatered, previousFertilized, previousPlantingDate);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (wheel) {
+                for (CareType type : CARE_TYPES) {
+                    if (!Objects.equals(type.lastCared.apply(previous), type.lastCared.apply(dates))) {
+                        schedule(dates, type);
+                    }
+                }
+            }
+        });
+    }
+
+    public void plantRemoved(Long plantId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (wheel) {
+                for (CareType type : CARE_TYPES) {
+                    wheel.cancel(key(plantId, type));
+                }
+            }
+        });
+    }
+
+    @Scheduled(cron = "${ecotrade.reminders.cron:0 0 8 * * *}")
+    public void sendDueReminders() {
+        sendDueReminders(LocalDate.now());
+    }
+
+    // Reminds about every plant whose care window opened by today and was not reminded yet, including
+    // windows that have closed since; returns the number of reminders sent
+    public int sendDueReminders(LocalDate today) {
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advanceTo(today.toEpochDay());
+        }
+        int sent = 0;
+        for (int from = 0; from < due.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> keys = due.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, due.size()));
+            List<PlantReminderDTO> reminders = checkDue(keys, today);
+            if (!reminders.isEmpty()) {
+                deliver(reminders);
+                plantReminderRepository.recordSent(reminders.stream()
+                        .map(reminder -> new SentReminder(reminder.getPlantId(), reminder.getCareType(),
+                                reminder.getLastCared()))
+                        .toList());
+                sent += reminders.size();
+            }
+        }
+        if (!due.isEmpty()) {
+            logger.info("Sent {} plant reminders for {} due entries", sent, due.size());
+        }
+        return sent;
+    }
+
+    // Plants deleted in the meantime are dropped, plants cared for since they were scheduled move on
+    private List<PlantReminderDTO> checkDue(List<Long> keys, LocalDate today) {
+        Map<Long, CareDates> datesById = new HashMap<>();
+        for (CareDates dates : plantReminderRepository.findCareDates(
+                keys.stream().map(key -> key / CARE_TYPES.length).distinct().toList())) {
+            datesById.put(dates.plantId(), dates);
+        }
+
+        List<PlantReminderDTO> reminders = new ArrayList<>();
+        for (long key : keys) {
+            CareDates dates = datesById.get(key / CARE_TYPES.length);
+            CareType type = CARE_TYPES[(int) (key % CARE_TYPES.length)];
+            LocalDate lastCared = dates != null ? type.lastCared.apply(dates) : null;
+            if (lastCared == null) {
+                continue;
+            }
+            LocalDate windowStart = lastCared.plusDays(type.windowStartDays);
+            if (windowStart.isAfter(today)) {
+                synchronized (wheel) {
+                    schedule(dates, type);
+                }
+                continue;
+            }
+            LocalDate windowEnd = lastCared.plusDays(type.windowEndDays);
+            reminders.add(new PlantReminderDTO(dates.userId(), dates.plantId(), dates.name(), type.name(), lastCared,
+                    windowStart, windowEnd, windowEnd.isBefore(today)));
+        }
+        return reminders;
+    }
+
+    private void deliver(List<PlantReminderDTO> reminders) {
+        for (PlantReminderSink sink : sinks) {
+            try {
+                sink.deliver(reminders);
+            } catch (RuntimeException e) {
+                logger.error("Reminder sink {} failed to deliver {} reminders", sink.getClass().getSimpleName(),
+                        reminders.size(), e);
+            }
+        }
+        for (PlantReminderDTO reminder : reminders) {
+            meterRegistry.counter("ecotrade.reminders.sent", "type", reminder.getCareType()).increment();
+        }
+    }
+
+    // Callers hold the wheel's monitor
+    private void schedule(CareDates dates, CareType type) {
+        LocalDate lastCared = type.lastCared.apply(dates);
+        long key = key(dates.plantId(), type);
+        if (lastCared == null) {
+            wheel.cancel(key);
+        } else {
+            wheel.schedule(key, lastCared.plusDays(type.windowStartDays).toEpochDay());
+        }
+    }
+
+    public int scheduledCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private static CareDates careDates(Plant plant, LocalDate watered, LocalDate fertilized, LocalDate planted) {
+        return new CareDates(plant.getId(), plant.getUser().getId(), plant.getName(),
+                watered != null ? watered : planted, fertilized != null ? fertilized : planted);
+    }
+
+    private static long key(long plantId, CareType type) {
+        return plantId * CARE_TYPES.length + type.ordinal();
+    }
+}
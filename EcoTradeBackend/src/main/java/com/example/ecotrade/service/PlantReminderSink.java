@@ -0,0 +1,11 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.PlantReminderDTO;
+import java.util.List;
+
+// Delivers care reminders to users, e.g. by e-mail or push notification. Every sink bean receives
+// each day's reminders in batches; a failing sink does not keep the others from being called.
+public interface PlantReminderSink {
+
+    void deliver(List<PlantReminderDTO> reminders);
+}
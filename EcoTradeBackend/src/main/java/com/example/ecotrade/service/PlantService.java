@@ -1,19 +1,29 @@
 package com.example.ecotrade.service;
 
 import com.example.ecotrade.dto.PlantDTO;
+import com.example.ecotrade.dto.PlantGrowthBucketDTO;
 import com.example.ecotrade.exception.ResourceNotFoundException;
 import com.example.ecotrade.model.*;
 import com.example.ecotrade.repository.*;
+import com.example.ecotrade.repository.PlantGrowthRollupRepository.DailyRollup;
+import com.example.ecotrade.service.PlantReminderService.CareType;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ecotrade.service", histogram = true)
 public class PlantService {
 
     @Autowired
@@ -26,109 +36,185 @@ public class PlantService {
     private ProductRepository productRepository;
     
     @Autowired
-    private OrderRepository orderRepository;
+    private PlantGrowthRecordRepository plantGrowthRecordRepository;
     
     @Autowired
-    private PlantGrowthRecordRepository plantGrowthRecordRepository;
+    private PlantGrowthRollupRepository plantGrowthRollupRepository;
+    
+    @Autowired
+    private EcoPointsAccumulator ecoPointsAccumulator;
     
     @Autowired
-    private UserService userService;
+    private UserSummaryService userSummaryService;
     
+    @Autowired
+    private PlantReminderService plantReminderService;
+    
+    @Transactional(readOnly = true)
     public List<PlantDTO> getAllPlants() {
         return plantRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public PlantDTO getPlantById(Long id) {
         Plant plant = plantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
         return convertToDTO(plant);
     }
     
+    @Transactional(readOnly = true)
     public List<PlantDTO> getPlantsByUserId(Long userId) {
         return plantRepository.findByUserId(userId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    // Plants are materialized when their order reaches the configured status, so this is a single read
+    @Transactional(readOnly = true)
     public List<PlantDTO> getPlantsFromUserOrders(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        
-        // Get all orders for the user
-        List<Order> userOrders = orderRepository.findByUserId(userId);
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
         
-        // Create a list to store plants from orders
-        List<Plant> plantsFromOrders = new ArrayList<>();
+        return plantRepository.findOrderPlantsByUserId(userId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    // Growth chart data from the daily rollups: one bucket per day, ISO week or month that has records
+    // between from and to (inclusive). Buckets at the edges only cover the days inside the range.
+    @Transactional(readOnly = true)
+    public List<PlantGrowthBucketDTO> getGrowthHistory(Long plantId, LocalDate from, LocalDate to,
+                                                       PlantGrowthBucketDTO.Resolution resolution) {
+        if (!plantRepository.existsById(plantId)) {
+            throw new ResourceNotFoundException("Plant not found with id: " + plantId);
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : LocalDate.EPOCH;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
         
-        // For each order, check if it contains plant products
-        for (Order order : userOrders) {
-            for (OrderItem item : order.getItems()) {
-                Product product = item.getProduct();
-                
-                // Check if the product is a plant
-                if (product != null && product.getIsPlant()) {
-                    // Check if plants from this order and product already exist
-                    List<Plant> existingPlants = plantRepository.findByUserIdAndProductId(userId, product.getId());
-                    
-                    // Filter to find plants specifically from this order
-                    List<Plant> existingOrderPlants = existingPlants.stream()
-                        .filter(p -> p.getName() != null && p.getName().contains("Order #" + order.getId()))
-                        .collect(Collectors.toList());
-                    
-                    // Count how many plants we need to create based on quantity
-                    int quantityOrdered = item.getQuantity();
-                    int existingCount = existingOrderPlants.size();
-                    int plantsToCreate = quantityOrdered - existingCount;
-                    
-                    // Add existing plants to the result list
-                    plantsFromOrders.addAll(existingOrderPlants);
-                    
-                    // Create new plants if needed
-                    for (int i = 0; i < plantsToCreate; i++) {
-                        // Create a new plant for this product and order
-                        Plant newPlant = new Plant();
-                        newPlant.setUser(user);
-                        newPlant.setProduct(product);
-                        
-                        // Create a unique name with order ID, date, and plastic usage
-                        String orderDate = order.getOrderDate().toLocalDate().toString();
-                        String plasticInfo = order.getUsePlastic() ? "with plastic" : "eco-friendly";
-                        String uniqueName = product.getName() + " (Order #" + order.getId() 
-                            + ", " + orderDate + ", " + plasticInfo;
-                        
-                        // Add a count suffix if there are multiple plants of the same type in one order
-                        if (quantityOrdered > 1) {
-                            uniqueName += ", #" + (existingCount + i + 1) + " of " + quantityOrdered;
-                        }
-                        uniqueName += ")";
-                        
-                        newPlant.setName(uniqueName);
-                        newPlant.setSpecies(product.getDescription());
-                        newPlant.setPlantingDate(LocalDate.now());
-                        newPlant.setPurchaseDate(order.getOrderDate());
-                        newPlant.setGrowthStage("Seedling");
-                        newPlant.setHealthStatus("Good");
-                        newPlant.setImageUrl(product.getImageUrl());
-                        
-                        // Save the new plant
-                        Plant savedPlant = plantRepository.save(newPlant);
-                        plantsFromOrders.add(savedPlant);
-                    }
+        List<PlantGrowthBucketDTO> buckets = new ArrayList<>();
+        GrowthBucket current = null;
+        for (DailyRollup day : plantGrowthRollupRepository.findDaily(plantId, start, end)) {
+            LocalDate bucketStart = switch (resolution) {
+                case DAY -> day.day();
+                case WEEK -> day.day().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.day().withDayOfMonth(1);
+            };
+            if (current == null || !current.start.equals(bucketStart)) {
+                if (current != null) {
+                    buckets.add(current.toDTO());
                 }
+                current = new GrowthBucket(bucketStart);
             }
+            current.add(day);
+        }
+        if (current != null) {
+            buckets.add(current.toDTO());
+        }
+        return buckets;
+    }
+    
+    private static final class GrowthBucket {
+        private final LocalDate start;
+        private int recordCount;
+        private int heightCount;
+        private double heightSum;
+        private Double heightMin;
+        private Double heightMax;
+        
+        private GrowthBucket(LocalDate start) {
+            this.start = start;
         }
         
-        // Return the list of plants from orders
-        return plantsFromOrders.stream()
-                .map(this::convertToDTO)
+        private void add(DailyRollup day) {
+            recordCount += day.recordCount();
+            heightCount += day.heightCount();
+            heightSum += day.heightSum();
+            if (day.heightMin() != null && (heightMin == null || day.heightMin() < heightMin)) {
+                heightMin = day.heightMin();
+            }
+            if (day.heightMax() != null && (heightMax == null || day.heightMax() > heightMax)) {
+                heightMax = day.heightMax();
+            }
+        }
+        
+        private PlantGrowthBucketDTO toDTO() {
+            return new PlantGrowthBucketDTO(start, recordCount, heightMin, heightMax,
+                    heightCount > 0 ? heightSum / heightCount : null);
+        }
+    }
+    
+    // Creates one plant per unit of every plant item in the order, linked to its order item
+    @Transactional
+    public void materializePlantsForOrder(Order order) {
+        List<OrderItem> plantItems = order.getItems().stream()
+                .filter(item -> item.getProduct() != null && Boolean.TRUE.equals(item.getProduct().getIsPlant()))
                 .collect(Collectors.toList());
+        if (plantItems.isEmpty()) {
+            return;
+        }
+        
+        // Skip units that were already materialized, so a repeated call does not duplicate plants
+        Map<Long, Long> existingCounts = new HashMap<>();
+        for (Object[] row : plantRepository.countByOrderItemIds(
+                plantItems.stream().map(OrderItem::getId).collect(Collectors.toList()))) {
+            existingCounts.put((Long) row[0], (Long) row[1]);
+        }
+        
+        List<Plant> newPlants = new ArrayList<>();
+        for (OrderItem item : plantItems) {
+            int existingCount = existingCounts.getOrDefault(item.getId(), 0L).intValue();
+            for (int i = existingCount; i < item.getQuantity(); i++) {
+                newPlants.add(newOrderPlant(order, item, i));
+            }
+        }
+        plantRepository.saveAll(newPlants);
+        userSummaryService.plantsAdded(newPlants);
+        plantReminderService.plantsAdded(newPlants);
+    }
+    
+    private Plant newOrderPlant(Order order, OrderItem item, int index) {
+        Product product = item.getProduct();
+        int quantityOrdered = item.getQuantity();
+        
+        Plant newPlant = new Plant();
+        newPlant.setUser(order.getUser());
+        newPlant.setProduct(product);
+        newPlant.setOrderItem(item);
+        
+        // Create a unique name with order ID, date, and plastic usage
+        String orderDate = order.getOrderDate().toLocalDate().toString();
+        String plasticInfo = Boolean.TRUE.equals(order.getUsePlastic()) ? "with plastic" : "eco-friendly";
+        String uniqueName = product.getName() + " (Order #" + order.getId() 
+            + ", " + orderDate + ", " + plasticInfo;
+        
+        // Add a count suffix if there are multiple plants of the same type in one order
+        if (quantityOrdered > 1) {
+            uniqueName += ", #" + (index + 1) + " of " + quantityOrdered;
+        }
+        uniqueName += ")";
+        
+        newPlant.setName(uniqueName);
+        newPlant.setSpecies(product.getDescription());
+        newPlant.setPlantingDate(LocalDate.now());
+        newPlant.setPurchaseDate(order.getOrderDate());
+        newPlant.setGrowthStage("Seedling");
+        newPlant.setHealthStatus("Good");
+        newPlant.setImageUrl(product.getImageUrl());
+        return newPlant;
     }
     
+    @Transactional
     public PlantDTO recordMaintenance(Long id, String maintenanceType, String notes) {
         Plant plant = plantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
+        LocalDate previousWatered = plant.getLastWatered();
+        LocalDate previousFertilized = plant.getLastFertilized();
         
         // Create a new growth record
         PlantGrowthRecord record = new PlantGrowthRecord();
@@ -158,27 +244,29 @@ public class PlantService {
                 ecoPointsEarned = 2; // Base points for other maintenance
         }
         
-        // Update growth stage based on time since planting
-        updateGrowthStage(plant);
-        
-        // Save the growth record
+        // Save the growth record and count it in its day's rollup
         plantGrowthRecordRepository.save(record);
+        plantGrowthRollupRepository.recordAdded(plant.getId(), record.getRecordDate(), record.getHeightCm());
         
         // Save the updated plant
         Plant updatedPlant = plantRepository.save(plant);
+        plantReminderService.plantChanged(updatedPlant, previousWatered, previousFertilized);
         
         // Award EcoPoints to the user
         if (ecoPointsEarned > 0) {
-            userService.addEcoPoints(plant.getUser().getId(), ecoPointsEarned, 
-                    "Plant maintenance: " + maintenanceType + " for " + plant.getName());
+            ecoPointsAccumulator.addPoints(plant.getUser().getId(), ecoPointsEarned, 
+                    maintenanceReason(maintenanceType));
         }
         
         return convertToDTO(updatedPlant);
     }
     
+    @Transactional
     public PlantDTO recordMaintenance(Long id, String maintenanceType, String notes, Double currentHeightCm) {
         Plant plant = plantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
+        LocalDate previousWatered = plant.getLastWatered();
+        LocalDate previousFertilized = plant.getLastFertilized();
         
         // Create a new growth record
         PlantGrowthRecord record = new PlantGrowthRecord();
@@ -204,8 +292,7 @@ public class PlantService {
                 int growthPoints = (int) Math.ceil(growth * 2);
                 
                 // Add to the user's EcoPoints
-                userService.addEcoPoints(plant.getUser().getId(), growthPoints, 
-                        "Plant growth: " + growth + " cm for " + plant.getName());
+                ecoPointsAccumulator.addPoints(plant.getUser().getId(), growthPoints, "Plant growth");
             }
         }
         
@@ -231,24 +318,32 @@ public class PlantService {
                 ecoPointsEarned = 2; // Base points for other maintenance
         }
         
-        // Update growth stage based on time since planting
-        updateGrowthStage(plant);
-        
-        // Save the growth record
+        // Save the growth record and count it in its day's rollup
         plantGrowthRecordRepository.save(record);
+        plantGrowthRollupRepository.recordAdded(plant.getId(), record.getRecordDate(), record.getHeightCm());
         
         // Save the updated plant
         Plant updatedPlant = plantRepository.save(plant);
+        plantReminderService.plantChanged(updatedPlant, previousWatered, previousFertilized);
         
         // Award EcoPoints to the user
         if (ecoPointsEarned > 0) {
-            userService.addEcoPoints(plant.getUser().getId(), ecoPointsEarned, 
-                    "Plant maintenance: " + maintenanceType + " for " + plant.getName());
+            ecoPointsAccumulator.addPoints(plant.getUser().getId(), ecoPointsEarned, 
+                    maintenanceReason(maintenanceType));
         }
         
         return convertToDTO(updatedPlant);
     }
     
+    // Awards are merged per user and reason before they are written, so the reason names the kind of
+    // care, not the plant
+    private static String maintenanceReason(String maintenanceType) {
+        return switch (maintenanceType.toLowerCase()) {
+            case "water", "fertilize", "prune", "repot" -> "Plant maintenance: " + maintenanceType.toLowerCase();
+            default -> "Plant maintenance: other";
+        };
+    }
+    
     private int calculateWateringPoints(Plant plant) {
         // Base points for watering
         int points = 3;
@@ -258,7 +353,7 @@ public class PlantService {
             long daysSinceLastWatering = ChronoUnit.DAYS.between(plant.getLastWatered(), LocalDate.now());
             
             // If watering is done on schedule (5-9 days), award bonus points
-            if (daysSinceLastWatering >= 5 && daysSinceLastWatering <= 9) {
+            if (CareType.WATERING.isRegular(daysSinceLastWatering)) {
                 points += 2; // Bonus for regular watering
             }
         }
@@ -275,7 +370,7 @@ public class PlantService {
             long daysSinceLastFertilizing = ChronoUnit.DAYS.between(plant.getLastFertilized(), LocalDate.now());
             
             // If fertilizing is done on schedule (25-35 days), award bonus points
-            if (daysSinceLastFertilizing >= 25 && daysSinceLastFertilizing <= 35) {
+            if (CareType.FERTILIZING.isRegular(daysSinceLastFertilizing)) {
                 points += 5; // Bonus for regular fertilizing
             }
         }
@@ -283,25 +378,7 @@ public class PlantService {
         return points;
     }
     
-    private void updateGrowthStage(Plant plant) {
-        if (plant.getPlantingDate() == null) {
-            return;
-        }
-        
-        long daysSincePlanting = ChronoUnit.DAYS.between(plant.getPlantingDate(), LocalDate.now());
-        
-        // Update growth stage based on time
-        if (daysSincePlanting < 14) {
-            plant.setGrowthStage("Seedling");
-        } else if (daysSincePlanting < 45) {
-            plant.setGrowthStage("Young Plant");
-        } else if (daysSincePlanting < 90) {
-            plant.setGrowthStage("Mature Plant");
-        } else {
-            plant.setGrowthStage("Fully Grown");
-        }
-    }
-    
+    @Transactional
     public PlantDTO createPlant(PlantDTO plantDTO) {
         User user = userRepository.findById(plantDTO.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + plantDTO.getUserId()));
@@ -339,12 +416,21 @@ public class PlantService {
         plant.setImageUrl(plantDTO.getImageUrl());
         plant.setNotes(plantDTO.getNotes());
         
-        return convertToDTO(plantRepository.save(plant));
+        Plant savedPlant = plantRepository.save(plant);
+        userSummaryService.plantsAdded(List.of(savedPlant));
+        plantReminderService.plantsAdded(List.of(savedPlant));
+        return convertToDTO(savedPlant);
     }
     
+    @Transactional
     public PlantDTO updatePlant(Long id, PlantDTO plantDTO) {
         Plant plant = plantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
+        Long previousUserId = plant.getUser().getId();
+        String previousStage = plant.getGrowthStage();
+        LocalDate previousWatered = plant.getLastWatered();
+        LocalDate previousFertilized = plant.getLastFertilized();
+        LocalDate previousPlantingDate = plant.getPlantingDate();
         
         // Update user if changed
         if (plant.getUser().getId() != plantDTO.getUserId()) {
@@ -374,32 +460,43 @@ public class PlantService {
         plant.setImageUrl(plantDTO.getImageUrl());
         plant.setNotes(plantDTO.getNotes());
         
-        return convertToDTO(plantRepository.save(plant));
+        Plant updatedPlant = plantRepository.save(plant);
+        userSummaryService.plantChanged(previousUserId, previousStage, updatedPlant);
+        plantReminderService.plantChanged(updatedPlant, previousWatered, previousFertilized, previousPlantingDate);
+        return convertToDTO(updatedPlant);
     }
     
     public PlantDTO waterPlant(Long id) {
         Plant plant = plantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
         
+        LocalDate previousWatered = plant.getLastWatered();
         plant.setLastWatered(LocalDate.now());
         
-        return convertToDTO(plantRepository.save(plant));
+        Plant updatedPlant = plantRepository.save(plant);
+        plantReminderService.plantChanged(updatedPlant, previousWatered, updatedPlant.getLastFertilized());
+        return convertToDTO(updatedPlant);
     }
     
     public PlantDTO fertilizePlant(Long id) {
         Plant plant = plantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
         
+        LocalDate previousFertilized = plant.getLastFertilized();
         plant.setLastFertilized(LocalDate.now());
         
-        return convertToDTO(plantRepository.save(plant));
+        Plant updatedPlant = plantRepository.save(plant);
+        plantReminderService.plantChanged(updatedPlant, updatedPlant.getLastWatered(), previousFertilized);
+        return convertToDTO(updatedPlant);
     }
     
+    @Transactional
     public void deletePlant(Long id) {
-        if (!plantRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Plant not found with id: " + id);
-        }
-        plantRepository.deleteById(id);
+        Plant plant = plantRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
+        plantRepository.delete(plant);
+        userSummaryService.plantRemoved(plant);
+        plantReminderService.plantRemoved(plant.getId());
     }
     
     private PlantDTO convertToDTO(Plant plant) {
@@ -0,0 +1,268 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.PlasticSubmissionAckDTO;
+import com.example.ecotrade.dto.PlasticSubmissionAckDTO.AckStatus;
+import com.example.ecotrade.dto.PlasticSubmissionDTO;
+import com.example.ecotrade.exception.IntakeBackpressureException;
+import com.example.ecotrade.exception.ResourceNotFoundException;
+import com.example.ecotrade.model.PlasticSubmission;
+import com.example.ecotrade.model.PlasticSubmission.SubmissionStatus;
+import com.example.ecotrade.repository.PlasticSubmissionRepository;
+import com.example.ecotrade.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+// Bulk intake for collection drives: submissions go through a bounded queue and a single writer
+// drains whatever has piled up into batched inserts, so bursts cost one round trip per batch
+// instead of one per submission. A full queue pushes back on the caller instead of growing the heap.
+@Component
+public class PlasticSubmissionIntake {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlasticSubmissionIntake.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlasticSubmissionRepository plasticSubmissionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ecotrade.plastic-intake.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${ecotrade.plastic-intake.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ecotrade.plastic-intake.max-request-size:5000}")
+    private int maxRequestSize;
+
+    @Value("${ecotrade.plastic-intake.ack-timeout:10s}")
+    private Duration ackTimeout;
+
+    @Value("${ecotrade.plastic-intake.retry-after:1s}")
+    private Duration retryAfter;
+
+    private BlockingQueue<PendingSubmission> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private Counter storedCounter;
+    private Counter throttledCounter;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("ecotrade.plastic.intake.queue", queue, BlockingQueue::size);
+        storedCounter = meterRegistry.counter("ecotrade.plastic.intake.stored");
+        throttledCounter = meterRegistry.counter("ecotrade.plastic.intake.throttled");
+
+        running = true;
+        writer = new Thread(this::drainLoop, "plastic-intake-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The writer keeps draining until the queue is empty, so accepted submissions are not lost
+        running = false;
+        writer.join(ackTimeout.toMillis());
+    }
+
+    public List<PlasticSubmissionAckDTO> submit(List<PlasticSubmissionDTO> submissions) {
+        if (submissions == null || submissions.isEmpty()) {
+            throw new IllegalArgumentException("At least one submission is required");
+        }
+        if (submissions.size() > maxRequestSize) {
+            throw new IllegalArgumentException("At most " + maxRequestSize + " submissions can be sent at once");
+        }
+        if (!running) {
+            throw new IntakeBackpressureException("Plastic submission intake is shutting down", retryAfter.toSeconds());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        PlasticSubmissionAckDTO[] acks = new PlasticSubmissionAckDTO[submissions.size()];
+        List<PendingSubmission> enqueued = new ArrayList<>();
+
+        for (int i = 0; i < submissions.size(); i++) {
+            PlasticSubmissionDTO dto = submissions.get(i);
+            String error = validate(dto);
+            if (error != null) {
+                acks[i] = new PlasticSubmissionAckDTO(i, AckStatus.REJECTED, null, null, error);
+                continue;
+            }
+
+            double ecoPoints = PlasticSubmissionService.calculateEcoPoints(dto.getWeight(), dto.getPlasticType());
+            PendingSubmission pending = new PendingSubmission(i, dto, ecoPoints, now, new CompletableFuture<>());
+            if (queue.offer(pending)) {
+                enqueued.add(pending);
+            } else {
+                throttledCounter.increment();
+                acks[i] = new PlasticSubmissionAckDTO(i, AckStatus.RETRY, null, ecoPoints, "Intake queue is full");
+            }
+        }
+
+        if (enqueued.isEmpty() && hasStatus(acks, AckStatus.RETRY)) {
+            throw new IntakeBackpressureException("Plastic submission intake queue is full", retryAfter.toSeconds());
+        }
+
+        awaitStored(enqueued);
+        for (PendingSubmission pending : enqueued) {
+            acks[pending.index()] = toAck(pending);
+        }
+        return List.of(acks);
+    }
+
+    private String validate(PlasticSubmissionDTO dto) {
+        if (dto == null) {
+            return "Submission is empty";
+        }
+        if (dto.getUserId() == null) {
+            return "userId is required";
+        }
+        if (dto.getWeight() == null || !(dto.getWeight() > 0)) {
+            return "weight must be greater than 0";
+        }
+        return null;
+    }
+
+    private void awaitStored(List<PendingSubmission> enqueued) {
+        if (enqueued.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] futures = enqueued.stream()
+                .map(PendingSubmission::result)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Per-item outcomes are read below; unfinished items are acknowledged as ACCEPTED
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PlasticSubmissionAckDTO toAck(PendingSubmission pending) {
+        CompletableFuture<Long> result = pending.result();
+        if (!result.isDone()) {
+            return new PlasticSubmissionAckDTO(pending.index(), AckStatus.ACCEPTED, null, pending.ecoPoints(),
+                    "Queued for storage");
+        }
+        try {
+            return new PlasticSubmissionAckDTO(pending.index(), AckStatus.CREATED, result.join(), pending.ecoPoints(), null);
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return new PlasticSubmissionAckDTO(pending.index(), AckStatus.REJECTED, null, pending.ecoPoints(),
+                    cause.getMessage());
+        }
+    }
+
+    private static boolean hasStatus(PlasticSubmissionAckDTO[] acks, AckStatus status) {
+        for (PlasticSubmissionAckDTO ack : acks) {
+            if (ack != null && ack.getStatus() == status) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        List<PendingSubmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSubmission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to store {} plastic submissions", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingSubmission> batch) {
+        // One lookup for all users in the batch instead of one findById per submission
+        Set<Long> userIds = batch.stream().map(pending -> pending.dto().getUserId()).collect(Collectors.toSet());
+        Set<Long> existingUserIds = new HashSet<>(userRepository.findExistingIds(userIds));
+
+        List<PendingSubmission> valid = new ArrayList<>(batch.size());
+        for (PendingSubmission pending : batch) {
+            Long userId = pending.dto().getUserId();
+            if (existingUserIds.contains(userId)) {
+                valid.add(pending);
+            } else {
+                pending.result().completeExceptionally(new ResourceNotFoundException("User not found with id: " + userId));
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Ids come from the pooled generator, so Hibernate sends these as JDBC batches of hibernate.jdbc.batch_size
+        List<PlasticSubmission> submissions = transactionTemplate.execute(status -> {
+            List<PlasticSubmission> entities = new ArrayList<>(valid.size());
+            for (PendingSubmission pending : valid) {
+                entities.add(toEntity(pending));
+            }
+            return plasticSubmissionRepository.saveAll(entities);
+        });
+
+        for (int i = 0; i < valid.size(); i++) {
+            valid.get(i).result().complete(submissions.get(i).getId());
+        }
+        storedCounter.increment(valid.size());
+    }
+
+    private PlasticSubmission toEntity(PendingSubmission pending) {
+        PlasticSubmissionDTO dto = pending.dto();
+        PlasticSubmission submission = new PlasticSubmission();
+        submission.setUser(userRepository.getReferenceById(dto.getUserId()));
+        submission.setSubmissionDate(pending.submittedAt());
+        submission.setStatus(SubmissionStatus.PENDING);
+        submission.setPlasticType(dto.getPlasticType());
+        submission.setWeight(dto.getWeight());
+        submission.setDescription(dto.getDescription());
+        submission.setImageUrl(dto.getImageUrl());
+        submission.setLocation(dto.getLocation());
+        submission.setEcoPoints(pending.ecoPoints());
+        return submission;
+    }
+
+    private record PendingSubmission(int index, PlasticSubmissionDTO dto, double ecoPoints,
+                                     LocalDateTime submittedAt, CompletableFuture<Long> result) {
+    }
+}
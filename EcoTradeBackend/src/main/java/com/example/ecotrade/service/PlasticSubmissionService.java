@@ -1,21 +1,35 @@
 package com.example.ecotrade.service;
 
+import com.example.ecotrade.dto.BulkResultDTO;
 import com.example.ecotrade.dto.PlasticSubmissionDTO;
 import com.example.ecotrade.exception.ResourceNotFoundException;
 import com.example.ecotrade.model.PlasticSubmission;
 import com.example.ecotrade.model.PlasticSubmission.SubmissionStatus;
 import com.example.ecotrade.model.User;
 import com.example.ecotrade.repository.PlasticSubmissionRepository;
+import com.example.ecotrade.repository.PlasticSubmissionRepository.ReviewCandidate;
 import com.example.ecotrade.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ecotrade.service", histogram = true)
 public class PlasticSubmissionService {
 
+    // Keeps IN lists well below driver and database parameter limits
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private PlasticSubmissionRepository plasticSubmissionRepository;
     
@@ -23,10 +37,13 @@ public class PlasticSubmissionService {
     private UserRepository userRepository;
     
     @Autowired
-    private UserService userService;
+    private EcoPointsService ecoPointsService;
+    
+    @Autowired
+    private UserSummaryService userSummaryService;
     
     // Calculate eco points based on weight (1kg = 10 points)
-    private double calculateEcoPoints(Double weightKg, String plasticType) {
+    static double calculateEcoPoints(Double weightKg, String plasticType) {
         // Base calculation: 1kg = 10 points
         double basePoints = weightKg * 10;
         
@@ -50,18 +67,21 @@ public class PlasticSubmissionService {
         return basePoints;
     }
     
+    @Transactional(readOnly = true)
     public List<PlasticSubmissionDTO> getAllSubmissions() {
         return plasticSubmissionRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public PlasticSubmissionDTO getSubmissionById(Long id) {
         PlasticSubmission submission = plasticSubmissionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plastic submission not found with id: " + id));
         return convertToDTO(submission);
     }
     
+    @Transactional(readOnly = true)
     public List<PlasticSubmissionDTO> getSubmissionsByUserId(Long userId) {
         return plasticSubmissionRepository.findByUserId(userId).stream()
                 .map(this::convertToDTO)
@@ -92,9 +112,11 @@ public class PlasticSubmissionService {
         return convertToDTO(savedSubmission);
     }
     
+    @Transactional
     public PlasticSubmissionDTO verifySubmission(Long id, String notes) {
         PlasticSubmission submission = plasticSubmissionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plastic submission not found with id: " + id));
+        boolean wasVerified = submission.getStatus() == SubmissionStatus.VERIFIED;
         
         submission.setStatus(SubmissionStatus.VERIFIED);
         submission.setNotes(notes);
@@ -102,15 +124,23 @@ public class PlasticSubmissionService {
         submission.setVerificationNotes(notes);
         
         // Award eco points to the user
-        userService.addEcoPoints(submission.getUser().getId(), (int)Math.round(submission.getEcoPoints()));
+        ecoPointsService.addPoints(submission.getUser().getId(), (int)Math.round(submission.getEcoPoints()),
+                "Plastic submission #" + submission.getId() + " verified");
+        if (!wasVerified) {
+            userSummaryService.plasticVerified(Map.of(submission.getUser().getId(), submission.getWeight()));
+        }
         
         PlasticSubmission updatedSubmission = plasticSubmissionRepository.save(submission);
         return convertToDTO(updatedSubmission);
     }
     
+    @Transactional
     public PlasticSubmissionDTO rejectSubmission(Long id, String notes) {
         PlasticSubmission submission = plasticSubmissionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plastic submission not found with id: " + id));
+        if (submission.getStatus() == SubmissionStatus.VERIFIED) {
+            userSummaryService.plasticUnverified(submission.getUser().getId(), submission.getWeight());
+        }
         
         submission.setStatus(SubmissionStatus.REJECTED);
         submission.setNotes(notes);
@@ -121,9 +151,87 @@ public class PlasticSubmissionService {
         return convertToDTO(updatedSubmission);
     }
     
+    // Verifies many pending submissions with set-based updates and one grouped eco points update per user
+    @Transactional
+    public BulkResultDTO verifySubmissions(List<Long> ids, String notes) {
+        return reviewSubmissions(ids, SubmissionStatus.VERIFIED, notes);
+    }
+    
+    @Transactional
+    public BulkResultDTO rejectSubmissions(List<Long> ids, String notes) {
+        return reviewSubmissions(ids, SubmissionStatus.REJECTED, notes);
+    }
+    
+    private BulkResultDTO reviewSubmissions(List<Long> ids, SubmissionStatus newStatus, String notes) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one submission id is required");
+        }
+        
+        // Sorted ids make every bulk review lock rows in the same order
+        List<Long> sortedIds = new ArrayList<>(new TreeSet<>(ids));
+        LocalDateTime now = LocalDateTime.now();
+        BulkResultDTO result = new BulkResultDTO();
+        Map<Long, Integer> pointsByUser = new HashMap<>();
+        Map<Long, Integer> submissionsByUser = new HashMap<>();
+        Map<Long, Double> kgByUser = new HashMap<>();
+        
+        for (int from = 0; from < sortedIds.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, sortedIds.size()));
+            
+            List<ReviewCandidate> candidates =
+                    plasticSubmissionRepository.findReviewCandidatesForUpdate(chunk, SubmissionStatus.PENDING);
+            List<Long> pendingIds = new ArrayList<>(candidates.size());
+            for (ReviewCandidate candidate : candidates) {
+                pendingIds.add(candidate.getId());
+                if (newStatus == SubmissionStatus.VERIFIED) {
+                    // Rounded per submission, exactly like a single verification
+                    pointsByUser.merge(candidate.getUserId(), (int)Math.round(candidate.getEcoPoints()), Integer::sum);
+                    submissionsByUser.merge(candidate.getUserId(), 1, Integer::sum);
+                    kgByUser.merge(candidate.getUserId(), candidate.getWeight(), Double::sum);
+                }
+            }
+            
+            if (!pendingIds.isEmpty()) {
+                plasticSubmissionRepository.updateReviewStatus(pendingIds, newStatus, notes, now);
+                result.getSucceeded().addAll(pendingIds);
+            }
+            if (pendingIds.size() < chunk.size()) {
+                recordSkipped(chunk, new HashSet<>(pendingIds), result);
+            }
+        }
+        
+        if (!pointsByUser.isEmpty()) {
+            Map<Long, Map<String, Integer>> deltasByUser = new HashMap<>();
+            pointsByUser.forEach((userId, points) -> deltasByUser.put(userId,
+                    Map.of(submissionsByUser.get(userId) + " plastic submission(s) verified", points)));
+            ecoPointsService.applyDeltas(deltasByUser);
+            userSummaryService.plasticVerified(kgByUser);
+        }
+        return result;
+    }
+    
+    private void recordSkipped(List<Long> chunk, Set<Long> reviewedIds, BulkResultDTO result) {
+        Map<Long, SubmissionStatus> statuses = new HashMap<>();
+        plasticSubmissionRepository.findStatusesByIds(chunk)
+                .forEach(view -> statuses.put(view.getId(), view.getStatus()));
+        for (Long id : chunk) {
+            if (reviewedIds.contains(id)) {
+                continue;
+            }
+            SubmissionStatus status = statuses.get(id);
+            result.getFailed().put(id, status == null
+                    ? "Plastic submission not found with id: " + id
+                    : "Plastic submission is already " + status);
+        }
+    }
+    
+    @Transactional
     public void deleteSubmission(Long id) {
         PlasticSubmission submission = plasticSubmissionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plastic submission not found with id: " + id));
+        if (submission.getStatus() == SubmissionStatus.VERIFIED) {
+            userSummaryService.plasticUnverified(submission.getUser().getId(), submission.getWeight());
+        }
         plasticSubmissionRepository.delete(submission);
     }
     
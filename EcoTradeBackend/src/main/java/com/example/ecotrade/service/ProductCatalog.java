@@ -0,0 +1,166 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.model.Product.ProductCategory;
+import com.example.ecotrade.service.CatalogSnapshot.Row;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Read model of the product catalog. Catalog reads use the current CatalogSnapshot without locking,
+// JPA or a database round trip. ProductService reports every product write here. Product edits are
+// read back once they commit and a new snapshot is swapped in. Stock changes from checkouts,
+// cancellations and flash-sale flushes only mark the products; every stock-refresh-interval one
+// query reads the stock of all marked products and sets it in place, so a checkout costs neither a
+// snapshot copy nor the swap lock. The table is also reloaded periodically, which picks up products
+// written around the services or by other instances.
+@Service
+public class ProductCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private static final String COLUMNS =
+            "id, name, description, price, eco_points_cost, eco_points_reward, stock, image_url, category, is_plant";
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(rs.getLong(1), rs.getString(2),
+            rs.getString(3), rs.getDouble(4), rs.getInt(5), rs.getObject(6, Integer.class), rs.getInt(7),
+            rs.getString(8), ProductCategory.valueOf(rs.getString(9)), rs.getObject(10, Boolean.class));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ecotrade.catalog.snapshot.enabled:true}")
+    private boolean enabled;
+
+    // Null until loaded; replaced as a whole, only its stock column is updated in place
+    private volatile CatalogSnapshot snapshot;
+    // Serializes loading, swapping and stock updates, so a reload cannot overwrite a change applied
+    // while it was reading
+    private final ReentrantLock swapLock = new ReentrantLock();
+    // Products whose stock changed since the last stock refresh
+    private final Set<Long> staleStock = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("ecotrade.catalog.products", this, catalog -> {
+            CatalogSnapshot current = catalog.snapshot;
+            return current != null ? current.size() : 0;
+        });
+    }
+
+    // The snapshot to serve catalog reads from, or null while it is disabled or not loaded yet
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ecotrade.catalog.resync-interval:10m}",
+               fixedDelayString = "${ecotrade.catalog.resync-interval:10m}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        swapLock.lock();
+        try {
+            snapshot = read();
+        } finally {
+            swapLock.unlock();
+        }
+        logger.info("Product catalog snapshot loaded with {} products", snapshot.size());
+    }
+
+    // Reads the whole products table into a new snapshot without installing it
+    public CatalogSnapshot read() {
+        return CatalogSnapshot.of(jdbcTemplate.query("SELECT " + COLUMNS + " FROM products", ROW_MAPPER));
+    }
+
+    // Re-reads the given products once the current transaction commits; deleted ones leave the catalog
+    public void refresh(Collection<Long> productIds) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(productIds);
+        TransactionCallbacks.afterCommit(() -> {
+            swapLock.lock();
+            try {
+                if (snapshot != null) {
+                    snapshot = snapshot.with(ids, findRows(ids));
+                }
+            } finally {
+                swapLock.unlock();
+            }
+        });
+    }
+
+    // Marks the products for the next stock refresh once the current transaction commits
+    public void stockChanged(Collection<Long> productIds) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(productIds);
+        TransactionCallbacks.afterCommit(() -> staleStock.addAll(ids));
+    }
+
+    // Returns the number of products whose stock was read
+    @Scheduled(initialDelayString = "${ecotrade.catalog.stock-refresh-interval:200ms}",
+               fixedDelayString = "${ecotrade.catalog.stock-refresh-interval:200ms}")
+    public int refreshStock() {
+        if (staleStock.isEmpty()) {
+            return 0;
+        }
+        swapLock.lock();
+        try {
+            CatalogSnapshot current = snapshot;
+            if (current == null) {
+                return 0;
+            }
+            // Products marked from here on are read by the next refresh, which sees their commit
+            List<Long> ids = new ArrayList<>(staleStock);
+            staleStock.removeAll(ids);
+            for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+                namedParameterJdbcTemplate.query("SELECT id, stock FROM products WHERE id IN (:ids)",
+                        Map.of("ids", chunk), rs -> {
+                            current.setStock(rs.getLong(1), rs.getInt(2));
+                        });
+            }
+            return ids.size();
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private List<Row> findRows(Set<Long> ids) {
+        List<Long> idList = List.copyOf(ids);
+        List<Row> rows = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, idList.size()));
+            rows.addAll(namedParameterJdbcTemplate.query("SELECT " + COLUMNS + " FROM products WHERE id IN (:ids)",
+                    Map.of("ids", chunk), ROW_MAPPER));
+        }
+        return rows;
+    }
+}
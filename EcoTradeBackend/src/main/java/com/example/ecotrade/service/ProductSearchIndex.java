@@ -0,0 +1,187 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.model.Product.ProductCategory;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over product name, description and category. Terms are kept sorted, so
+// every query word matches the words it is a prefix of ("fer" finds "fern" and "fertilizer"), which
+// is what typeahead needs. Words matched in the name weigh more than in the category or description.
+// Facet counts are computed over the same hits. Not thread-safe, ProductSearchService guards it.
+public final class ProductSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int NAME_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // term -> product id -> summed weight of the fields the term occurs in
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    public int size() {
+        return docs.size();
+    }
+
+    // Indexes the product or replaces its previous version
+    public void put(long id, String name, String description, ProductCategory category, boolean isPlant,
+                    double price) {
+        remove(id);
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, name, NAME_WEIGHT);
+        addTerms(weights, category != null ? category.name() : null, CATEGORY_WEIGHT);
+        addTerms(weights, description, DESCRIPTION_WEIGHT);
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        docs.put(id, new Doc(id, name, category, isPlant, price, weights.keySet().toArray(String[]::new)));
+    }
+
+    public boolean remove(long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return false;
+        }
+        for (String term : doc.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        return true;
+    }
+
+    public Result search(Query query) {
+        Map<Long, Integer> scores = match(tokenize(query.text()));
+
+        Map<ProductCategory, Long> categoryCounts = new EnumMap<>(ProductCategory.class);
+        Map<Boolean, Long> isPlantCounts = new HashMap<>();
+        List<Doc> hits = new ArrayList<>();
+        Iterable<Long> candidates = scores != null ? scores.keySet() : docs.keySet();
+        for (long id : candidates) {
+            Doc doc = docs.get(id);
+            if ((query.minPrice() != null && doc.price() < query.minPrice())
+                    || (query.maxPrice() != null && doc.price() > query.maxPrice())) {
+                continue;
+            }
+            boolean categoryMatches = query.category() == null || query.category() == doc.category();
+            boolean isPlantMatches = query.isPlant() == null || query.isPlant() == doc.isPlant();
+            // Each facet counts the hits of the other filters, so its other values stay selectable
+            if (isPlantMatches && doc.category() != null) {
+                categoryCounts.merge(doc.category(), 1L, Long::sum);
+            }
+            if (categoryMatches) {
+                isPlantCounts.merge(doc.isPlant(), 1L, Long::sum);
+            }
+            if (categoryMatches && isPlantMatches) {
+                hits.add(doc);
+            }
+        }
+
+        Comparator<Doc> byId = Comparator.comparingLong(Doc::id);
+        hits.sort(scores != null
+                ? Comparator.<Doc>comparingInt(doc -> scores.get(doc.id())).reversed().thenComparing(byId)
+                : byId);
+        List<Long> page = hits.stream()
+                .skip(query.offset())
+                .limit(query.limit())
+                .map(Doc::id)
+                .toList();
+        return new Result(hits.size(), page, categoryCounts, isPlantCounts);
+    }
+
+    // Distinct names of the best matching products, for typeahead
+    public List<String> suggest(String prefix, int limit) {
+        Map<Long, Integer> scores = match(tokenize(prefix));
+        if (scores == null) {
+            return List.of();
+        }
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Set<String> names = new LinkedHashSet<>();
+        for (Map.Entry<Long, Integer> entry : ranked) {
+            if (names.size() == limit) {
+                break;
+            }
+            names.add(docs.get(entry.getKey()).name());
+        }
+        return new ArrayList<>(names);
+    }
+
+    // Products containing every word, or null for a query without words. A product's score is the
+    // sum over the words of its best matching term, doubled when the word is the whole term.
+    private Map<Long, Integer> match(List<String> words) {
+        if (words.isEmpty()) {
+            return null;
+        }
+        Map<Long, Integer> scores = null;
+        for (String word : words) {
+            Map<Long, Integer> wordScores = new HashMap<>();
+            NavigableMap<String, Map<Long, Integer>> terms =
+                    postings.subMap(word, true, word + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<Long, Integer>> term : terms.entrySet()) {
+                int factor = term.getKey().equals(word) ? 2 : 1;
+                for (Map.Entry<Long, Integer> posting : term.getValue().entrySet()) {
+                    if (scores == null || scores.containsKey(posting.getKey())) {
+                        wordScores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+                    }
+                }
+            }
+            if (scores != null) {
+                Map<Long, Integer> previous = scores;
+                wordScores.replaceAll((id, score) -> score + previous.get(id));
+            }
+            scores = wordScores;
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String term : new LinkedHashSet<>(tokenize(text))) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    // Lower-cased words without accents, split on anything that is not a letter or digit
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    public record Query(String text, ProductCategory category, Boolean isPlant, Double minPrice, Double maxPrice,
+                        int offset, int limit) {
+    }
+
+    public record Result(int total, List<Long> ids, Map<ProductCategory, Long> categoryCounts,
+                         Map<Boolean, Long> isPlantCounts) {
+    }
+
+    private record Doc(long id, String name, ProductCategory category, boolean isPlant, double price,
+                       String[] terms) {
+    }
+}
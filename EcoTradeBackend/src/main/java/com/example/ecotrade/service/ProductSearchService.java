@@ -0,0 +1,78 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.Product.ProductCategory;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+// Catalog search served from an in-memory inverted index, so queries never scan the products table.
+// ProductService reports product writes here and they are applied once their transaction commits.
+// The index is loaded on startup and rebuilt periodically, which picks up products written around the
+// services or by other instances.
+@Service
+@Timed(value = "ecotrade.service", histogram = true)
+public class ProductSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReadWriteGuard guard = new ReadWriteGuard();
+    private ProductSearchIndex index = new ProductSearchIndex();
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("ecotrade.product.search.indexed", this, service -> service.guard.read(() -> service.index.size()));
+    }
+
+    // Writes committed between the snapshot query and the swap may be missing until the next rebuild
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ecotrade.product-search.resync-interval:10m}",
+               fixedDelayString = "${ecotrade.product-search.resync-interval:10m}")
+    public void rebuild() {
+        ProductSearchIndex rebuilt = new ProductSearchIndex();
+        jdbcTemplate.query("SELECT id, name, description, category, is_plant, price FROM products",
+                rs -> {
+                    rebuilt.put(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            ProductCategory.valueOf(rs.getString(4)), rs.getBoolean(5), rs.getDouble(6));
+                });
+        guard.write(() -> index = rebuilt);
+        logger.info("Product search index rebuilt with {} products", rebuilt.size());
+    }
+
+    public void productChanged(Product product) {
+        long id = product.getId();
+        String name = product.getName();
+        String description = product.getDescription();
+        ProductCategory category = product.getCategory();
+        boolean isPlant = Boolean.TRUE.equals(product.getIsPlant());
+        double price = product.getPrice() != null ? product.getPrice() : 0.0;
+        TransactionCallbacks.afterCommit(() -> guard.write(() -> index.put(id, name, description, category, isPlant, price)));
+    }
+
+    public void productRemoved(Long productId) {
+        TransactionCallbacks.afterCommit(() -> guard.write(() -> index.remove(productId)));
+    }
+
+    public ProductSearchIndex.Result search(ProductSearchIndex.Query query) {
+        return guard.read(() -> index.search(query));
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return guard.read(() -> index.suggest(prefix, limit));
+    }
+}
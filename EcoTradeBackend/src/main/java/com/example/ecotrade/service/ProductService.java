@@ -1,48 +1,245 @@
 package com.example.ecotrade.service;
 
+import com.example.ecotrade.dto.CacheStatsDTO;
 import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.dto.ProductPageDTO;
+import com.example.ecotrade.dto.ProductSearchResultDTO;
 import com.example.ecotrade.exception.ResourceNotFoundException;
 import com.example.ecotrade.model.Product;
 import com.example.ecotrade.model.Product.ProductCategory;
 import com.example.ecotrade.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "ecotrade.service", histogram = true)
 public class ProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SUGGEST_SIZE = 10;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Looked up lazily, FlashSaleStock itself evicts products through this service
+    @Autowired
+    private ObjectProvider<FlashSaleStock> flashSaleStock;
+
+    @Value("${ecotrade.product-cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${ecotrade.product-cache.ttl:10m}")
+    private Duration cacheTtl;
+
+    // Read-through caches for the storefront lookups, invalidated by every product write
+    private Cache<Long, ProductDTO> productsById;
+    private Cache<ProductCategory, List<ProductDTO>> productsByCategory;
+    private Cache<Boolean, List<ProductDTO>> productsByIsPlant;
+
+    // Catalog reads open a transaction only when they fall back to the database, i.e. while the catalog
+    // snapshot is disabled or not loaded yet
+    private TransactionTemplate transaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void initCaches() {
+        productsById = newCache("productsById");
+        productsByCategory = newCache("productsByCategory");
+        productsByIsPlant = newCache("productsByIsPlant");
+        transaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private <K, V> Cache<K, V> newCache(String name) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
     public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll().stream()
+        CatalogSnapshot catalog = productCatalog.current();
+        if (catalog != null) {
+            return catalog.all();
+        }
+        return readOnlyTransaction.execute(status -> productRepository.findAll().stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
+    // Cache misses load from the primary (read-write transaction): an entry evicted after a write
+    // must not be refilled from a replica that has not caught up with that write yet
     public ProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return convertToDTO(product);
+        CatalogSnapshot catalog = productCatalog.current();
+        if (catalog != null) {
+            ProductDTO product = catalog.get(id);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + id);
+            }
+            return product;
+        }
+        return transaction.execute(status -> productsById.get(id, key -> {
+            Product product = productRepository.findById(key)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + key));
+            return convertToDTO(product);
+        }));
     }
 
     public List<ProductDTO> getProductsByCategory(ProductCategory category) {
-        return productRepository.findByCategory(category).stream()
-                .map(this::convertToDTO)
+        CatalogSnapshot catalog = productCatalog.current();
+        if (catalog != null) {
+            return catalog.byCategory(category);
+        }
+        return transaction.execute(status -> productsByCategory.get(category, key ->
+                productRepository.findByCategory(key).stream()
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toUnmodifiableList())));
+    }
+
+    public ProductPageDTO getProductsPage(String cursor, Integer limit) {
+        int pageSize = normalizePageSize(limit);
+        long afterId = decodeCursor(cursor);
+        CatalogSnapshot catalog = productCatalog.current();
+        if (catalog != null) {
+            return toPage(catalog.pageAfter(afterId, pageSize + 1), pageSize);
+        }
+        return toPage(readOnlyTransaction.execute(status -> toDTOs(
+                productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1)))), pageSize);
+    }
+
+    public ProductPageDTO getProductsByCategoryPage(ProductCategory category, String cursor, Integer limit) {
+        int pageSize = normalizePageSize(limit);
+        long afterId = decodeCursor(cursor);
+        CatalogSnapshot catalog = productCatalog.current();
+        if (catalog != null) {
+            return toPage(catalog.pageAfter(category, afterId, pageSize + 1), pageSize);
+        }
+        return toPage(readOnlyTransaction.execute(status -> toDTOs(productRepository
+                .findByCategoryAndIdGreaterThanOrderByIdAsc(category, afterId, Limit.of(pageSize + 1)))), pageSize);
+    }
+
+    // Writes products as newline-delimited JSON, one row at a time, so exports run in constant memory
+    @Transactional(readOnly = true)
+    public void exportProducts(ProductCategory category, OutputStream outputStream) throws IOException {
+        try (Stream<Product> products = category == null
+                ? productRepository.streamAll()
+                : productRepository.streamByCategory(category)) {
+            int written = 0;
+            for (Product product : (Iterable<Product>) products::iterator) {
+                outputStream.write(objectMapper.writeValueAsBytes(convertToDTO(product)));
+                outputStream.write('\n');
+                
+                // Detach each row so the persistence context does not grow with the export
+                entityManager.detach(product);
+                
+                if (++written % 500 == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        }
+    }
+
+    // Matches come from the search index; the page's products are read from the catalog snapshot or
+    // the product cache, so stock is as current as on the product pages
+    public ProductSearchResultDTO searchProducts(String query, ProductCategory category, Boolean isPlant,
+                                                 Double minPrice, Double maxPrice, Integer limit, Integer offset) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        if (offset != null && offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        ProductSearchIndex.Result result = productSearchService.search(new ProductSearchIndex.Query(query, category,
+                isPlant, minPrice, maxPrice, offset != null ? offset : 0, normalizePageSize(limit)));
+        
+        CatalogSnapshot catalog = productCatalog.current();
+        if (catalog != null) {
+            List<ProductDTO> items = result.ids().stream()
+                    .map(catalog::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            return new ProductSearchResultDTO(items, result.total(), result.categoryCounts(), result.isPlantCounts());
+        }
+        Map<Long, ProductDTO> productsByIds = transaction.execute(status -> productsById.getAll(result.ids(), ids ->
+                productRepository.findAllById(List.copyOf(ids)).stream()
+                        .collect(Collectors.toMap(Product::getId, this::convertToDTO))));
+        List<ProductDTO> items = result.ids().stream()
+                .map(productsByIds::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new ProductSearchResultDTO(items, result.total(), result.categoryCounts(), result.isPlantCounts());
+    }
+
+    public List<String> suggestProductNames(String prefix, Integer limit) {
+        return productSearchService.suggest(prefix, limit != null ? normalizePageSize(limit) : DEFAULT_SUGGEST_SIZE);
     }
 
     public List<ProductDTO> getPlants() {
-        return productRepository.findByIsPlant(true).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        CatalogSnapshot catalog = productCatalog.current();
+        if (catalog != null) {
+            return catalog.plants();
+        }
+        return transaction.execute(status -> productsByIsPlant.get(true, key ->
+                productRepository.findByIsPlant(key).stream()
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toUnmodifiableList())));
     }
 
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = convertToEntity(productDTO);
         Product savedProduct = productRepository.save(product);
+        evictProduct(savedProduct);
+        productCatalog.refresh(List.of(savedProduct.getId()));
+        productSearchService.productChanged(savedProduct);
         return convertToDTO(savedProduct);
     }
 
@@ -50,16 +247,29 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         
+        // The old category and plant flag may differ from the new ones, evict both
+        evictProduct(product);
+        
         product.setName(productDTO.getName());
         product.setDescription(productDTO.getDescription());
         product.setPrice(productDTO.getPrice());
         product.setEcoPointsCost(productDTO.getEcoPointsCost());
-        product.setStock(productDTO.getStock());
+        // Stock of a flash-sale product is owned by its counter until the sale is stopped
+        if (flashSaleStock.getObject().isFlashSale(id)) {
+            if (productDTO.getStock() != null && !productDTO.getStock().equals(product.getStock())) {
+                throw new IllegalArgumentException("Stock cannot be changed during a flash sale for product: " + id);
+            }
+        } else {
+            product.setStock(productDTO.getStock());
+        }
         product.setImageUrl(productDTO.getImageUrl());
         product.setCategory(productDTO.getCategory());
         product.setIsPlant(productDTO.getIsPlant());
         
         Product updatedProduct = productRepository.save(product);
+        evictProduct(updatedProduct);
+        productCatalog.refresh(List.of(id));
+        productSearchService.productChanged(updatedProduct);
         return convertToDTO(updatedProduct);
     }
 
@@ -70,6 +280,8 @@ public class ProductService {
         product.setImageUrl(imageUrl);
         
         Product updatedProduct = productRepository.save(product);
+        evictProduct(updatedProduct);
+        productCatalog.refresh(List.of(id));
         return convertToDTO(updatedProduct);
     }
 
@@ -77,6 +289,94 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         productRepository.delete(product);
+        evictProduct(product);
+        productCatalog.refresh(List.of(id));
+        productSearchService.productRemoved(id);
+    }
+
+    // Called by other services whenever they change the stock of product rows
+    public void evictProducts(Collection<Product> products) {
+        products.forEach(this::evictProduct);
+        productCatalog.stockChanged(products.stream().map(Product::getId).filter(Objects::nonNull).toList());
+    }
+
+    public List<CacheStatsDTO> getCacheStats() {
+        return List.of(
+                toCacheStats("productsById", productsById),
+                toCacheStats("productsByCategory", productsByCategory),
+                toCacheStats("productsByIsPlant", productsByIsPlant));
+    }
+
+    private void evictProduct(Product product) {
+        Long id = product.getId();
+        ProductCategory category = product.getCategory();
+        Boolean isPlant = product.getIsPlant();
+        
+        Runnable eviction = () -> {
+            if (id != null) {
+                productsById.invalidate(id);
+            }
+            if (category != null) {
+                productsByCategory.invalidate(category);
+            }
+            productsByIsPlant.invalidate(Boolean.TRUE.equals(isPlant));
+        };
+        eviction.run();
+        
+        // Evict again once the transaction ends: after a commit a concurrent read cannot re-cache the old
+        // row, after a rollback a read made inside the transaction cannot keep the discarded one cached
+        TransactionCallbacks.afterCompletion(eviction);
+    }
+
+    private CacheStatsDTO toCacheStats(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+    
+    private int normalizePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private ProductPageDTO toPage(List<ProductDTO> products, int pageSize) {
+        // One extra row was fetched to find out whether another page exists
+        boolean hasMore = products.size() > pageSize;
+        List<ProductDTO> pageItems = hasMore ? products.subList(0, pageSize) : products;
+        
+        ProductPageDTO page = new ProductPageDTO();
+        page.setItems(pageItems);
+        if (hasMore) {
+            page.setNextCursor(encodeCursor(pageItems.get(pageItems.size() - 1).getId()));
+        }
+        return page;
+    }
+
+    private List<ProductDTO> toDTOs(List<Product> products) {
+        return products.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
     
     private ProductDTO convertToDTO(Product product) {
@@ -0,0 +1,29 @@
+package com.example.ecotrade.service;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Read-write lock around an in-memory index that is not thread-safe itself: queries share the read
+// lock, updates and swaps take the write lock
+final class ReadWriteGuard {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
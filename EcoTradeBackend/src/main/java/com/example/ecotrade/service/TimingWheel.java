@@ -0,0 +1,165 @@
+package com.example.ecotrade.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hierarchical timing wheel of keys due at a tick. Level 0 has one slot per tick for the next 64
+// ticks, every further level has 64 slots each 64 times wider; entries move down a level when the
+// wheel reaches their slot. Scheduling, rescheduling and cancelling are O(1) and advancing by one tick
+// only touches the slots that come due, so the cost does not grow with the number of entries.
+// Not thread-safe, PlantReminderService guards it.
+public final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 3;
+    // 64^3 ticks; entries further out wait in the overflow list until the top level wraps
+    private static final long HORIZON = 1L << (SLOT_BITS * LEVELS);
+
+    private final Node[][] slots = new Node[LEVELS][SLOTS];
+    private final Node overflow = Node.sentinel();
+    private final Node expired = Node.sentinel();
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (Node[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = Node.sentinel();
+            }
+        }
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    // Ticks that have already passed are due on the next advance
+    public void schedule(long key, long deadline) {
+        Node node = nodes.get(key);
+        if (node == null) {
+            node = new Node(key);
+            nodes.put(key, node);
+        } else {
+            node.unlink();
+        }
+        node.deadline = deadline;
+        place(node);
+    }
+
+    public boolean cancel(long key) {
+        Node node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        node.unlink();
+        return true;
+    }
+
+    public Long deadlineOf(long key) {
+        Node node = nodes.get(key);
+        return node != null ? node.deadline : null;
+    }
+
+    // Moves the wheel forward to tick and removes and returns every key due by then, in deadline order.
+    // Moving backwards does nothing.
+    public List<Long> advanceTo(long tick) {
+        List<Long> due = new ArrayList<>();
+        drain(expired, due);
+        while (currentTick < tick) {
+            currentTick++;
+            if ((currentTick & (HORIZON - 1)) == 0) {
+                cascade(overflow);
+            }
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = SLOT_BITS * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    cascade(slots[level][(int) ((currentTick >>> shift) & (SLOTS - 1))]);
+                }
+            }
+            drain(slots[0][(int) (currentTick & (SLOTS - 1))], due);
+            drain(expired, due);
+        }
+        return due;
+    }
+
+    private void place(Node node) {
+        long delta = node.deadline - currentTick;
+        if (delta <= 0) {
+            node.linkBefore(expired);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if (delta < 1L << (shift + SLOT_BITS)) {
+                node.linkBefore(slots[level][(int) ((node.deadline >>> shift) & (SLOTS - 1))]);
+                return;
+            }
+        }
+        node.linkBefore(overflow);
+    }
+
+    // Re-places the entries of a slot that the wheel reached, each lands on a lower level or expires
+    private void cascade(Node head) {
+        Node node = head.next;
+        head.next = head;
+        head.prev = head;
+        while (node != head) {
+            Node next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void drain(Node head, List<Long> due) {
+        Node node = head.next;
+        while (node != head) {
+            Node next = node.next;
+            node.unlink();
+            nodes.remove(node.key);
+            due.add(node.key);
+            node = next;
+        }
+    }
+
+    private static final class Node {
+        final long key;
+        long deadline;
+        Node prev;
+        Node next;
+
+        Node(long key) {
+            this.key = key;
+        }
+
+        static Node sentinel() {
+            Node head = new Node(-1);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        void linkBefore(Node head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        void unlink() {
+            if (prev != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.example.ecotrade.service;
 
+import com.example.ecotrade.dto.EcoPointsLedgerEntryDTO;
 import com.example.ecotrade.dto.UserDTO;
+import com.example.ecotrade.dto.UserSummaryDTO;
 import com.example.ecotrade.exception.ResourceNotFoundException;
 import com.example.ecotrade.model.User;
 import com.example.ecotrade.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ecotrade.service", histogram = true)
 public class UserService {
 
     @Autowired
@@ -18,13 +23,24 @@ public class UserService {
     
     @Autowired
     private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private EcoPointsService ecoPointsService;
+    
+    @Autowired
+    private UserSummaryService userSummaryService;
+    
+    @Autowired
+    private LeaderboardService leaderboardService;
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -44,9 +60,11 @@ public class UserService {
         User user = convertToEntity(userDTO);
         user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         User savedUser = userRepository.save(user);
+        leaderboardService.userAdded(savedUser.getId(), savedUser.getEcoPoints());
         return convertToDTO(savedUser);
     }
 
+    @Transactional
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -77,8 +95,10 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         }
         
+        // Balance changes go through the ledger as an adjustment instead of overwriting the column
         if (userDTO.getEcoPoints() != null) {
-            user.setEcoPoints(userDTO.getEcoPoints());
+            int currentPoints = userRepository.findEcoPointsById(id).orElse(0);
+            ecoPointsService.addPoints(id, userDTO.getEcoPoints() - currentPoints, "Manual balance adjustment");
         }
         
         // Update role if provided
@@ -87,40 +107,46 @@ public class UserService {
         }
         
         User updatedUser = userRepository.save(user);
-        return convertToDTO(updatedUser);
+        return withCurrentEcoPoints(convertToDTO(updatedUser));
     }
 
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         userRepository.delete(user);
+        leaderboardService.userRemoved(id);
     }
 
     public UserDTO addEcoPoints(Long id, Integer points) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        user.setEcoPoints(user.getEcoPoints() + points);
-        User updatedUser = userRepository.save(user);
-        return convertToDTO(updatedUser);
+        return addEcoPoints(id, points, "Manual award");
     }
     
+    @Transactional
     public UserDTO addEcoPoints(Long id, Integer points, String reason) {
-        // Log the reason for adding points
-        System.out.println("Adding " + points + " EcoPoints to user " + id + " for: " + reason);
-        return addEcoPoints(id, points);
+        ecoPointsService.addPoints(id, points, reason);
+        return withCurrentEcoPoints(getUserById(id));
     }
 
+    @Transactional
     public UserDTO useEcoPoints(Long id, Integer points) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        
-        if (user.getEcoPoints() < points) {
-            throw new IllegalArgumentException("User does not have enough eco points");
-        }
-        
-        user.setEcoPoints(user.getEcoPoints() - points);
-        User updatedUser = userRepository.save(user);
-        return convertToDTO(updatedUser);
+        ecoPointsService.deductPoints(id, points, "Points redeemed");
+        return withCurrentEcoPoints(getUserById(id));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<EcoPointsLedgerEntryDTO> getEcoPointsLedger(Long id, int limit) {
+        return ecoPointsService.getLedger(id, limit);
+    }
+    
+    @Transactional(readOnly = true)
+    public UserSummaryDTO getUserSummary(Long id) {
+        return userSummaryService.getSummary(id);
+    }
+    
+    // A user loaded earlier in the transaction does not see the atomic balance update
+    private UserDTO withCurrentEcoPoints(UserDTO userDTO) {
+        userRepository.findEcoPointsById(userDTO.getId()).ifPresent(userDTO::setEcoPoints);
+        return userDTO;
     }
     
     private UserDTO convertToDTO(User user) {
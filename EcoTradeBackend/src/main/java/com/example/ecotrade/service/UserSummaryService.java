@@ -0,0 +1,133 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.UserSummaryDTO;
+import com.example.ecotrade.exception.ResourceNotFoundException;
+import com.example.ecotrade.model.Order;
+import com.example.ecotrade.model.Plant;
+import com.example.ecotrade.repository.PlantGrowthStageRepository.StageChange;
+import com.example.ecotrade.repository.UserSummaryRepository;
+import com.example.ecotrade.repository.UserSummaryRepository.PlantStageDelta;
+import com.example.ecotrade.repository.UserSummaryRepository.SummaryDelta;
+import com.example.ecotrade.repository.UserSummaryRepository.SummaryRow;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Keeps the per-user dashboard aggregate current. The order, plant and plastic submission services
+// report their changes here inside their own transactions, so reading a summary never aggregates.
+@Service
+@Timed(value = "ecotrade.service", histogram = true)
+public class UserSummaryService {
+
+    @Autowired
+    private UserSummaryRepository userSummaryRepository;
+
+    @Transactional(readOnly = true)
+    public UserSummaryDTO getSummary(Long userId) {
+        SummaryRow row = userSummaryRepository.findSummary(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        Map<String, Long> plantsByGrowthStage = userSummaryRepository.findPlantStageCounts(userId);
+        long plantCount = plantsByGrowthStage.values().stream().mapToLong(Long::longValue).sum();
+        return new UserSummaryDTO(row.userId(), row.ecoPoints(), row.orderCount(), row.lifetimeSpend(),
+                plantCount, plantsByGrowthStage, row.verifiedPlasticKg());
+    }
+
+    @Transactional
+    public void orderPlaced(Order order) {
+        applyOrder(order, 1);
+    }
+
+    @Transactional
+    public void orderCancelled(Order order) {
+        applyOrder(order, -1);
+    }
+
+    @Transactional
+    public void plasticVerified(Map<Long, Double> kgByUser) {
+        // Sorted by user id, so concurrent batches lock the summary rows in the same order
+        List<SummaryDelta> deltas = new ArrayList<>();
+        new TreeMap<>(kgByUser).forEach((userId, kg) -> deltas.add(new SummaryDelta(userId, 0, 0, kg)));
+        userSummaryRepository.applySummaryDeltas(deltas);
+    }
+
+    @Transactional
+    public void plasticUnverified(Long userId, double kg) {
+        userSummaryRepository.applySummaryDeltas(List.of(new SummaryDelta(userId, 0, 0, -kg)));
+    }
+
+    @Transactional
+    public void plantsAdded(Collection<Plant> plants) {
+        Map<PlantStageKey, Long> deltas = new TreeMap<>();
+        for (Plant plant : plants) {
+            deltas.merge(PlantStageKey.of(plant.getUser().getId(), plant.getGrowthStage()), 1L, Long::sum);
+        }
+        applyPlantStageDeltas(deltas);
+    }
+
+    @Transactional
+    public void plantRemoved(Plant plant) {
+        applyPlantStageDeltas(Map.of(PlantStageKey.of(plant.getUser().getId(), plant.getGrowthStage()), -1L));
+    }
+
+    // Moves the plant between stage counters when its owner or growth stage changed
+    @Transactional
+    public void plantChanged(Long previousUserId, String previousStage, Plant plant) {
+        PlantStageKey before = PlantStageKey.of(previousUserId, previousStage);
+        PlantStageKey after = PlantStageKey.of(plant.getUser().getId(), plant.getGrowthStage());
+        if (before.equals(after)) {
+            return;
+        }
+        Map<PlantStageKey, Long> deltas = new TreeMap<>();
+        deltas.put(before, -1L);
+        deltas.put(after, 1L);
+        applyPlantStageDeltas(deltas);
+    }
+
+    // Moves plants between stage counters after a bulk stage recomputation
+    @Transactional
+    public void plantStagesChanged(Collection<StageChange> changes) {
+        Map<PlantStageKey, Long> deltas = new TreeMap<>();
+        for (StageChange change : changes) {
+            deltas.merge(PlantStageKey.of(change.userId(), change.previousStage()), -change.plants(), Long::sum);
+            deltas.merge(PlantStageKey.of(change.userId(), change.growthStage()), change.plants(), Long::sum);
+        }
+        applyPlantStageDeltas(deltas);
+    }
+
+    @Transactional
+    public void rebuildAll() {
+        userSummaryRepository.rebuildAll();
+    }
+
+    private void applyOrder(Order order, int sign) {
+        double spend = order.getTotalAmount() != null ? order.getTotalAmount() : 0.0;
+        userSummaryRepository.applySummaryDeltas(
+                List.of(new SummaryDelta(order.getUser().getId(), sign, sign * spend, 0)));
+    }
+
+    private void applyPlantStageDeltas(Map<PlantStageKey, Long> deltas) {
+        List<PlantStageDelta> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, plants) -> rows.add(new PlantStageDelta(key.userId(), key.growthStage(), plants)));
+        userSummaryRepository.applyPlantStageDeltas(rows);
+    }
+
+    private record PlantStageKey(long userId, String growthStage) implements Comparable<PlantStageKey> {
+
+        static PlantStageKey of(Long userId, String growthStage) {
+            return new PlantStageKey(userId, Objects.requireNonNullElse(growthStage, UserSummaryRepository.UNKNOWN_STAGE));
+        }
+
+        @Override
+        public int compareTo(PlantStageKey other) {
+            int byUser = Long.compare(userId, other.userId);
+            return byUser != 0 ? byUser : growthStage.compareTo(other.growthStage);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Dispatcher poll: pending rows whose next attempt is due. Orders waiting for a retry are checked
+-- through idx_order_outbox_order.
+
+create index idx_order_outbox_state_next_attempt on order_outbox (state, next_attempt_at);
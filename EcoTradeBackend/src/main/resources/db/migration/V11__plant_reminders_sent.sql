@@ -0,0 +1,14 @@
+-- Last reminder sent per plant and care type (PlantReminderService), identified by the care date it
+-- was sent for. On startup the reminder index leaves out care dates that were already reminded, so a
+-- restart does not repeat reminders for windows that are still open.
+
+create table plant_reminders_sent (
+    plant_id bigint not null,
+    care_type varchar(20) not null,
+    last_cared date not null,
+    sent_at datetime(6) not null,
+    primary key (plant_id, care_type)
+) engine=InnoDB;
+
+alter table plant_reminders_sent add constraint fk_plant_reminders_sent_plant
+    foreign key (plant_id) references plants (id) on delete cascade;
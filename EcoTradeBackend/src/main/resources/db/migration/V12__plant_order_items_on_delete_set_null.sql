@@ -0,0 +1,7 @@
+-- Deleting a cancelled order removes its order items. The plants materialized from them stay with
+-- the user and lose the link, like plants added by hand.
+
+alter table plants drop foreign key FKbio4a38pb3t5wctc3hht1suts;
+
+alter table plants add constraint FKbio4a38pb3t5wctc3hht1suts foreign key (order_item_id) references order_items (id)
+    on delete set null;
@@ -0,0 +1,6 @@
+-- The ledger of a user goes with the user, like user_summaries (V4).
+
+alter table eco_points_ledger drop foreign key FKit6kx4icls62xyk71rbsfvfxd;
+
+alter table eco_points_ledger add constraint FKit6kx4icls62xyk71rbsfvfxd foreign key (user_id) references users (id)
+    on delete cascade;
@@ -0,0 +1,12 @@
+-- Append-only log of EcoPoints balance changes, written by EcoPointsService and EcoPointsAccumulator.
+
+create table eco_points_ledger (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    points integer not null,
+    reason varchar(500),
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table eco_points_ledger add constraint FKit6kx4icls62xyk71rbsfvfxd foreign key (user_id) references users (id);
@@ -0,0 +1,5 @@
+-- Links each plant to the order item it was materialized from. Null for plants added by hand.
+
+alter table plants add column order_item_id bigint;
+
+alter table plants add constraint FKbio4a38pb3t5wctc3hht1suts foreign key (order_item_id) references order_items (id);
@@ -0,0 +1,111 @@
+-- Baseline: the schema previously created by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version, so only new databases run this script.
+
+create table users (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    full_name varchar(255),
+    username varchar(255),
+    email varchar(255) not null,
+    password varchar(255) not null,
+    eco_points integer not null,
+    role varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table products (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    description varchar(1000) not null,
+    price float(53) not null,
+    eco_points_cost integer not null,
+    eco_points_reward integer,
+    stock integer not null,
+    image_url varchar(255),
+    category enum ('ACCESSORIES','ECO_FRIENDLY_PRODUCTS','FERTILIZERS','PLANTS','POTS','SEEDS','TOOLS') not null,
+    is_plant bit,
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    total_amount float(53) not null,
+    order_date datetime(6) not null,
+    eco_points_earned integer,
+    eco_points_used integer,
+    use_plastic bit,
+    status enum ('CANCELLED','CONFIRMED','DELIVERED','PENDING','SHIPPED') not null,
+    shipping_address varchar(255),
+    payment_method varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items (
+    id bigint not null auto_increment,
+    order_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    price float(53) not null,
+    redeemed_with_points bit,
+    primary key (id)
+) engine=InnoDB;
+
+create table plants (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    product_id bigint not null,
+    name varchar(255) not null,
+    species varchar(255) not null,
+    plant_name varchar(255),
+    planting_date date,
+    purchase_date datetime(6) not null,
+    last_watered date,
+    last_fertilized date,
+    growth_stage varchar(255),
+    health_status varchar(255),
+    current_height_cm float(53),
+    image_url varchar(255),
+    notes varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table plant_growth_records (
+    id bigint not null auto_increment,
+    plant_id bigint not null,
+    record_date date not null,
+    height_cm float(53),
+    num_leaves integer,
+    image_url varchar(255),
+    notes varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table plastic_submissions (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    weight float(53) not null,
+    plastic_type varchar(255),
+    image_url varchar(255),
+    description varchar(255),
+    location varchar(255),
+    submission_date datetime(6) not null,
+    eco_points float(53) not null,
+    verification_date datetime(6),
+    verification_notes varchar(255),
+    status enum ('PENDING','REJECTED','VERIFIED') not null,
+    notes varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+-- Constraint names are the ones Hibernate generated, so baselined databases match new ones
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table orders add constraint FK32ql8ubntj5uh44ph9659tiih foreign key (user_id) references users (id);
+alter table order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (id);
+alter table order_items add constraint FKocimc7dtr037rh4ls4l95nlfi foreign key (product_id) references products (id);
+alter table plants add constraint FKobr4pknd4t8mj5brx0du97c3j foreign key (user_id) references users (id);
+alter table plants add constraint FK47wuk8mj0w19khtb99p7yc0i7 foreign key (product_id) references products (id);
+alter table plant_growth_records add constraint FKaqgdy89cp62fcdvcj05f3xydq foreign key (plant_id) references plants (id);
+alter table plastic_submissions add constraint FK8gaej2avngem0fcx1fylnc0f7 foreign key (user_id) references users (id);
@@ -0,0 +1,28 @@
+-- Secondary indexes for the repository finders and the admin queues.
+-- Composite indexes lead with the filtered column and end with the sort column of the query.
+
+-- OrderRepository.findByUserId / findByUserIdWithItems
+create index idx_orders_user_date on orders (user_id, order_date);
+-- Admin order queue by status, oldest first
+create index idx_orders_status_date on orders (status, order_date);
+
+-- PlantRepository.findByUserId / findByUserIdAndProductId
+create index idx_plants_user_product on plants (user_id, product_id);
+
+-- PlasticSubmissionRepository.findByUserId
+create index idx_plastic_submissions_user_date on plastic_submissions (user_id, submission_date);
+-- Moderation queue of pending submissions, oldest first
+create index idx_plastic_submissions_status_date on plastic_submissions (status, submission_date);
+
+-- ProductRepository.findByCategory / findByCategoryAndIdGreaterThanOrderByIdAsc
+create index idx_products_category_id on products (category, id);
+-- ProductRepository.findByIsPlant
+create index idx_products_is_plant_id on products (is_plant, id);
+-- ProductRepository.findByName
+create index idx_products_name on products (name);
+
+-- PlantGrowthRecordRepository.findByPlantId, growth history ordered by date
+create index idx_plant_growth_records_plant_date on plant_growth_records (plant_id, record_date);
+
+-- EcoPointsLedgerRepository.findByUserIdOrderByIdDesc
+create index idx_eco_points_ledger_user_id on eco_points_ledger (user_id, id);
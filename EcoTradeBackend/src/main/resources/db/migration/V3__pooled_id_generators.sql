@@ -0,0 +1,18 @@
+-- Ids now come from a shared generator table (@PooledId, pooled-lo blocks of 50) instead of AUTO_INCREMENT,
+-- so Hibernate knows ids before the INSERT and can send inserts as JDBC batches.
+-- next_val is the first id of the next block, seeded past the ids already in use.
+
+create table id_generators (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+insert into id_generators (sequence_name, next_val) select 'users', coalesce(max(id), 0) + 1 from users;
+insert into id_generators (sequence_name, next_val) select 'products', coalesce(max(id), 0) + 1 from products;
+insert into id_generators (sequence_name, next_val) select 'orders', coalesce(max(id), 0) + 1 from orders;
+insert into id_generators (sequence_name, next_val) select 'order_items', coalesce(max(id), 0) + 1 from order_items;
+insert into id_generators (sequence_name, next_val) select 'plants', coalesce(max(id), 0) + 1 from plants;
+insert into id_generators (sequence_name, next_val) select 'plant_growth_records', coalesce(max(id), 0) + 1 from plant_growth_records;
+insert into id_generators (sequence_name, next_val) select 'plastic_submissions', coalesce(max(id), 0) + 1 from plastic_submissions;
+insert into id_generators (sequence_name, next_val) select 'eco_points_ledger', coalesce(max(id), 0) + 1 from eco_points_ledger;
@@ -0,0 +1,38 @@
+-- Per-user dashboard aggregate behind GET /api/users/{id}/summary. The order, plant and plastic
+-- submission write paths apply deltas to these rows in the same transaction (UserSummaryService),
+-- so the summary is a primary key read instead of four list queries aggregated by the client.
+-- The points balance is not copied here, users.eco_points is already maintained atomically.
+
+create table user_summaries (
+    user_id bigint not null,
+    -- Orders that are not cancelled, and what they cost
+    order_count bigint not null default 0,
+    lifetime_spend float(53) not null default 0,
+    verified_plastic_kg float(53) not null default 0,
+    primary key (user_id)
+) engine=InnoDB;
+
+create table user_plant_stage_counts (
+    user_id bigint not null,
+    growth_stage varchar(255) not null,
+    plant_count bigint not null default 0,
+    primary key (user_id, growth_stage)
+) engine=InnoDB;
+
+alter table user_summaries add constraint fk_user_summaries_user
+    foreign key (user_id) references users (id) on delete cascade;
+alter table user_plant_stage_counts add constraint fk_user_plant_stage_counts_user
+    foreign key (user_id) references users (id) on delete cascade;
+
+-- Backfill from the existing rows; UserSummaryRepository.rebuild runs the same aggregation
+insert into user_summaries (user_id, order_count, lifetime_spend, verified_plastic_kg)
+select u.id,
+       (select count(*) from orders o where o.user_id = u.id and o.status <> 'CANCELLED'),
+       (select coalesce(sum(o.total_amount), 0) from orders o where o.user_id = u.id and o.status <> 'CANCELLED'),
+       (select coalesce(sum(s.weight), 0) from plastic_submissions s where s.user_id = u.id and s.status = 'VERIFIED')
+from users u;
+
+insert into user_plant_stage_counts (user_id, growth_stage, plant_count)
+select p.user_id, coalesce(p.growth_stage, 'Unknown'), count(*)
+from plants p
+group by p.user_id, coalesce(p.growth_stage, 'Unknown');
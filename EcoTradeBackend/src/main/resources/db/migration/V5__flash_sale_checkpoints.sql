@@ -0,0 +1,15 @@
+-- Write-behind checkpoints for flash-sale stock (FlashSaleStock). During a sale the stock of flagged
+-- products lives in in-memory counters and is flushed to products.stock every few hundred milliseconds.
+-- last_flush_at is when the last flush started; clean_shutdown stays false while an instance holds the
+-- counters, so the next startup can tell that reservations after last_flush_at may never have reached
+-- products.stock and subtracts the order items placed since then.
+
+create table flash_sale_checkpoints (
+    product_id bigint not null,
+    last_flush_at datetime(6) not null,
+    clean_shutdown bit not null,
+    primary key (product_id)
+) engine=InnoDB;
+
+alter table flash_sale_checkpoints add constraint fk_flash_sale_checkpoints_product
+    foreign key (product_id) references products (id) on delete cascade;
@@ -0,0 +1,16 @@
+-- Idempotency-Key records for order submission (OrderIdempotencyService), used when
+-- ecotrade.idempotency.store=database. A request claims its key by inserting the row in the same
+-- transaction that creates the order, so a duplicate sent to another instance blocks on the primary
+-- key until the first transaction ends and then replays its order_id. request_hash rejects a key
+-- that is reused for a different order. Rows older than ecotrade.idempotency.ttl are deleted.
+
+create table idempotency_keys (
+    user_id bigint not null,
+    idempotency_key varchar(255) not null,
+    request_hash char(64) not null,
+    order_id bigint,
+    created_at datetime(6) not null,
+    primary key (user_id, idempotency_key)
+) engine=InnoDB;
+
+create index idx_idempotency_keys_created_at on idempotency_keys (created_at);
@@ -0,0 +1,24 @@
+-- Transactional outbox for order status changes (OrderOutbox). Every transition inserts a row in the
+-- transaction that changes the order; the side effects of the transition (points awards, stock
+-- restores, plant materialization, summary updates) are run later by the dispatcher, each one in the
+-- same transaction that marks its row DONE. Rows that keep failing are parked as FAILED.
+-- There is no foreign key to orders: deleting an order must not drop side effects still owed for it.
+
+create table order_outbox (
+    id bigint not null,
+    order_id bigint not null,
+    order_status enum ('CANCELLED','CONFIRMED','DELIVERED','PENDING','SHIPPED') not null,
+    state enum ('DONE','FAILED','PENDING') not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    last_error varchar(1000),
+    created_at datetime(6) not null,
+    processed_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+-- Dispatcher poll (pending rows in creation order) and per-order lookups
+create index idx_order_outbox_state_created on order_outbox (state, created_at);
+create index idx_order_outbox_order on order_outbox (order_id, state);
+
+insert into id_generators (sequence_name, next_val) values ('order_outbox', 1);
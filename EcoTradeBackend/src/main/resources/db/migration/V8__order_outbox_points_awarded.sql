@@ -0,0 +1,5 @@
+-- Bulk deliveries award the eco points of all their orders in one aggregated update per user
+-- (OrderService.transitionOrders); their DELIVERED events are marked so the dispatcher does not
+-- award the points a second time.
+
+alter table order_outbox add column points_awarded bit not null default 0;
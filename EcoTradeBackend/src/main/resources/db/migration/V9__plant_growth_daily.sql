@@ -0,0 +1,24 @@
+-- Daily rollup of plant_growth_records behind GET /api/plants/{id}/growth. recordMaintenance upserts
+-- the row of the record's day in the same transaction (PlantGrowthRollupRepository), so growth charts
+-- read at most one row per day instead of every record. Weekly and monthly buckets are merged from the
+-- daily rows: count, sum, min and max combine exactly, the average is height_sum / height_count.
+
+create table plant_growth_daily (
+    plant_id bigint not null,
+    record_date date not null,
+    record_count integer not null,
+    -- Records that carried a height; only those count towards the height statistics
+    height_count integer not null,
+    height_sum float(53) not null,
+    height_min float(53),
+    height_max float(53),
+    primary key (plant_id, record_date)
+) engine=InnoDB;
+
+alter table plant_growth_daily add constraint fk_plant_growth_daily_plant
+    foreign key (plant_id) references plants (id) on delete cascade;
+
+insert into plant_growth_daily (plant_id, record_date, record_count, height_count, height_sum, height_min, height_max)
+select plant_id, record_date, count(*), count(height_cm), coalesce(sum(height_cm), 0), min(height_cm), max(height_cm)
+from plant_growth_records
+group by plant_id, record_date;
@@ -0,0 +1,45 @@
+package com.example.ecotrade;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs numbered tasks on a fixed pool, all released at once so they contend as much as possible.
+ * The first task failure is rethrown.
+ */
+public final class ConcurrentTasks {
+
+    private static final int THREADS = 16;
+
+    private ConcurrentTasks() {
+    }
+
+    public static void run(int tasks, IndexedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    public interface IndexedTask {
+        void run(int index) throws Exception;
+    }
+}
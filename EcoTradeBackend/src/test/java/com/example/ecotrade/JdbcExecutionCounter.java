@@ -0,0 +1,37 @@
+package com.example.ecotrade;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts JDBC round trips issued by Hibernate: single statement executions plus batch executions.
+ * Registered through {@code hibernate.session.events.auto}, so every session reports to the counters of
+ * the thread it runs on; scheduled jobs running meanwhile on other threads do not skew a test's counts.
+ */
+public class JdbcExecutionCounter implements SessionEventListener {
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        COUNTS.get().statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        COUNTS.get().batches++;
+    }
+
+    public static long roundTrips() {
+        Counts counts = COUNTS.get();
+        return counts.statements + counts.batches;
+    }
+
+    public static long batches() {
+        return COUNTS.get().batches;
+    }
+
+    private static final class Counts {
+        private long statements;
+        private long batches;
+    }
+}
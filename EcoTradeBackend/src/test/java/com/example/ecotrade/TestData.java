@@ -0,0 +1,85 @@
+package com.example.ecotrade;
+
+import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.dto.OrderItemDTO;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.ProductRepository;
+import com.example.ecotrade.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Users, products and order requests shared by the Spring Boot tests. Users and products are saved
+ * through the repositories; each test passes names of its own, as all tests share one database.
+ */
+@Component
+public class TestData {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    public User createUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        return userRepository.save(user);
+    }
+
+    public Product createProduct(String name, int stock) {
+        return createProduct(name, stock, Product.ProductCategory.POTS, 5.0);
+    }
+
+    public Product createPlantProduct(String name, int stock) {
+        return createProduct(name, stock, Product.ProductCategory.PLANTS, 10.0);
+    }
+
+    private Product createProduct(String name, int stock, Product.ProductCategory category, double price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name);
+        product.setPrice(price);
+        product.setStock(stock);
+        product.setCategory(category);
+        product.setIsPlant(category == Product.ProductCategory.PLANTS);
+        return productRepository.save(product);
+    }
+
+    // One unit of each product, without eco points
+    public static OrderDTO orderDTO(User user, Product... products) {
+        OrderDTO orderDTO = orderDTO(user, 0);
+        for (Product product : products) {
+            addItem(orderDTO, product, 1);
+        }
+        return orderDTO;
+    }
+
+    public static OrderDTO orderDTO(User user, Product product, int quantity, int ecoPointsEarned) {
+        return addItem(orderDTO(user, ecoPointsEarned), product, quantity);
+    }
+
+    private static OrderDTO orderDTO(User user, int ecoPointsEarned) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setUserId(user.getId());
+        orderDTO.setTotalAmount(0.0);
+        orderDTO.setEcoPointsEarned(ecoPointsEarned);
+        orderDTO.setEcoPointsUsed(0);
+        orderDTO.setUsePlastic(false);
+        return orderDTO;
+    }
+
+    private static OrderDTO addItem(OrderDTO orderDTO, Product product, int quantity) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        item.setPrice(product.getPrice());
+        orderDTO.getItems().add(item);
+        orderDTO.setTotalAmount(orderDTO.getTotalAmount() + product.getPrice() * quantity);
+        return orderDTO;
+    }
+}
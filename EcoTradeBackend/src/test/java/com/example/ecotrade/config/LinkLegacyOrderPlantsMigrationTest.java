@@ -0,0 +1,51 @@
+package com.example.ecotrade.config;
+
+import com.example.ecotrade.model.Order;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LinkLegacyOrderPlantsMigrationTest {
+
+    // A database of its own, left at the schema an existing deployment is migrated from
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:legacy-order-plants;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @Test
+    void linksAndCreatesPlantsOnlyForOrdersThatReachedTheMaterializationStatus() {
+        Flyway.configure().dataSource(dataSource).target("1.2").load().migrate();
+
+        jdbcTemplate.update("insert into users (id, name, email, password, eco_points, role) "
+                + "values (1, 'Legacy', 'legacy@example.com', 'password', 0, 'USER')");
+        jdbcTemplate.update("insert into products (id, name, description, price, eco_points_cost, stock, category, is_plant) "
+                + "values (1, 'Monstera', 'Monstera Deliciosa', 29.99, 0, 10, 'PLANTS', true), "
+                + "(2, 'Trowel', 'Steel trowel', 9.99, 0, 10, 'TOOLS', false)");
+        jdbcTemplate.update("insert into orders (id, user_id, total_amount, order_date, use_plastic, status) "
+                + "values (1, 1, 59.98, '2024-03-01 10:00:00', false, 'PENDING'), "
+                + "(2, 1, 69.97, '2024-03-02 10:00:00', false, 'SHIPPED'), "
+                + "(3, 1, 29.99, '2024-03-03 10:00:00', false, 'CANCELLED')");
+        jdbcTemplate.update("insert into order_items (id, order_id, product_id, quantity, price) "
+                + "values (1, 1, 1, 2, 29.99), (2, 2, 1, 2, 29.99), (3, 2, 2, 1, 9.99), (4, 3, 1, 1, 29.99)");
+        // Created by the old on-read materialization for one unit of order 2
+        jdbcTemplate.update("insert into plants (id, user_id, product_id, name, species, purchase_date) "
+                + "values (1, 1, 1, 'Monstera (Order #2, 2024-03-02, eco-friendly, #1 of 2)', "
+                + "'Monstera Deliciosa', '2024-03-02 10:00:00')");
+
+        Flyway.configure().dataSource(dataSource).target("1.3")
+                .javaMigrations(new V1_3__LinkLegacyOrderPlants(Order.OrderStatus.CONFIRMED))
+                .load().migrate();
+
+        // The pending order has not reached CONFIRMED and the cancelled one never will
+        assertEquals(List.of(2L, 2L), jdbcTemplate.queryForList(
+                "select order_item_id from plants order by id", Long.class));
+        assertEquals(List.of("Monstera (Order #2, 2024-03-02, eco-friendly, #1 of 2)",
+                        "Monstera (Order #2, 2024-03-02, eco-friendly, #2 of 2)"),
+                jdbcTemplate.queryForList("select name from plants order by id", String.class));
+    }
+}
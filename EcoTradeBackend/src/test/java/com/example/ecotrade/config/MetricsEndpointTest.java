@@ -0,0 +1,39 @@
+package com.example.ecotrade.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void prometheusEndpointExposesRequestServiceDatabaseAndPoolMetrics() {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/products/plants", String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/orders", String.class).getStatusCode());
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        String scrape = response.getBody();
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket"), "endpoint latency histogram");
+        assertTrue(scrape.contains("uri=\"/api/products/plants\""), "per-endpoint tags");
+        assertTrue(scrape.contains("ecotrade_service_seconds_bucket"), "service method histogram");
+        assertTrue(scrape.contains("method=\"getAllOrders\""), "per-method tags");
+        assertTrue(scrape.contains("hibernate_statements_total"), "hibernate statistics");
+        assertTrue(scrape.contains("hibernate_entities_loads_total"), "hibernate entity loads");
+        assertTrue(scrape.contains("hikaricp_connections_active"), "connection pool gauges");
+        assertTrue(scrape.contains("cache_gets_total{cache=\"productsByIsPlant\""), "product cache counters");
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ecotrade.config;
+
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.model.Product.ProductCategory;
+import com.example.ecotrade.service.ProductService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaDataSourceConfigTest.PRIMARY_URL,
+        "ecotrade.datasource.replica.url=" + ReplicaDataSourceConfigTest.REPLICA_URL
+})
+class ReplicaDataSourceConfigTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        // The replica is a separate, never-synchronized database with the same schema
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("routing_primary", currentDatabase(false));
+        assertEquals("routing_replica", currentDatabase(true));
+    }
+
+    @Test
+    void serviceReadsGoToTheReplicaAndWritesToThePrimary() throws IOException {
+        ProductDTO product = new ProductDTO();
+        product.setName("Replica Routing Pot");
+        product.setDescription("Only written to the primary");
+        product.setPrice(4.5);
+        product.setStock(3);
+        product.setEcoPointsCost(0);
+        product.setCategory(ProductCategory.POTS);
+        Long id = productService.createProduct(product).getId();
+
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        productService.exportProducts(ProductCategory.POTS, export);
+        assertFalse(export.toString(StandardCharsets.UTF_8).contains("Replica Routing Pot"));
+        // The catalog snapshot re-reads written products from the primary
+        assertEquals("Replica Routing Pot", productService.getProductById(id).getName());
+        assertTrue(productService.getAllProducts().stream().anyMatch(p -> p.getId().equals(id)));
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.ecotrade.controller;
+
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.dto.ProductPageDTO;
+import com.example.ecotrade.model.Product.ProductCategory;
+import com.example.ecotrade.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ProductControllerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void pagesWalkAllProductsOnceInIdOrder() {
+        for (int i = 0; i < 3; i++) {
+            productService.createProduct(product("Paging Seed Packet " + i, ProductCategory.SEEDS));
+        }
+        List<Long> allIds = ids(Arrays.asList(restTemplate.getForObject("/api/products", ProductDTO[].class)));
+
+        List<Long> pagedIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPageDTO page = getPage("/api/products?limit=7" + (cursor != null ? "&cursor=" + cursor : ""));
+            cursor = page.getNextCursor();
+            // Only the last page may be short
+            assertTrue(cursor == null || page.getItems().size() == 7);
+            pagedIds.addAll(ids(page.getItems()));
+        } while (cursor != null);
+
+        assertEquals(allIds.stream().sorted().toList(), pagedIds);
+    }
+
+    @Test
+    void aPageEndingAtTheLastProductHasNoNextCursor() {
+        productService.createProduct(product("Paging Trowel", ProductCategory.TOOLS));
+        productService.createProduct(product("Paging Rake", ProductCategory.TOOLS));
+        List<Long> toolIds = ids(Arrays.asList(restTemplate.getForObject("/api/products/category/TOOLS",
+                ProductDTO[].class))).stream().sorted().toList();
+        int count = toolIds.size();
+
+        ProductPageDTO exact = getPage("/api/products/category/TOOLS?limit=" + count);
+        assertEquals(toolIds, ids(exact.getItems()));
+        assertNull(exact.getNextCursor());
+
+        ProductPageDTO first = getPage("/api/products/category/TOOLS?limit=" + (count - 1));
+        assertEquals(toolIds.subList(0, count - 1), ids(first.getItems()));
+        assertNotNull(first.getNextCursor());
+
+        ProductPageDTO last = getPage("/api/products/category/TOOLS?limit=" + (count - 1)
+                + "&cursor=" + first.getNextCursor());
+        assertEquals(toolIds.subList(count - 1, count), ids(last.getItems()));
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void badCursorsAndLimitsAreRejected() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/api/products?cursor=not*base64", String.class).getStatusCode());
+        // Valid Base64 of "not-a-number"
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/api/products?cursor=bm90LWEtbnVtYmVy", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/api/products?limit=0", String.class).getStatusCode());
+    }
+
+    @Test
+    void exportWritesOneLinePerProduct() throws Exception {
+        productService.createProduct(product("Export Bamboo Pot", ProductCategory.POTS));
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/products/export", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+
+        List<String> lines = response.getBody().lines().toList();
+        assertEquals(jdbcTemplate.queryForObject("select count(*) from products", Integer.class), lines.size());
+        List<Long> exportedIds = new ArrayList<>();
+        for (String line : lines) {
+            exportedIds.add(objectMapper.readValue(line, ProductDTO.class).getId());
+        }
+        assertEquals(exportedIds.stream().distinct().count(), exportedIds.size());
+
+        List<String> potLines = restTemplate.getForObject("/api/products/category/POTS/export", String.class)
+                .lines().toList();
+        assertEquals(jdbcTemplate.queryForObject("select count(*) from products where category = 'POTS'",
+                Integer.class), potLines.size());
+    }
+
+    private ProductPageDTO getPage(String url) {
+        ResponseEntity<ProductPageDTO> response = restTemplate.getForEntity(url, ProductPageDTO.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private static List<Long> ids(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getId).toList();
+    }
+
+    private static ProductDTO product(String name, ProductCategory category) {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setDescription(name + " for controller tests");
+        product.setPrice(8.0);
+        product.setEcoPointsCost(0);
+        product.setStock(10);
+        product.setCategory(category);
+        product.setIsPlant(false);
+        return product;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ecotrade.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SchemaIndexTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void migrationsCreateIndexesForRepositoryFinders() throws SQLException {
+        assertIndex("orders", "idx_orders_user_date", "user_id", "order_date");
+        assertIndex("orders", "idx_orders_status_date", "status", "order_date");
+        assertIndex("plants", "idx_plants_user_product", "user_id", "product_id");
+        assertIndex("plastic_submissions", "idx_plastic_submissions_user_date", "user_id", "submission_date");
+        assertIndex("plastic_submissions", "idx_plastic_submissions_status_date", "status", "submission_date");
+        assertIndex("products", "idx_products_category_id", "category", "id");
+        assertIndex("products", "idx_products_is_plant_id", "is_plant", "id");
+        assertIndex("products", "idx_products_name", "name");
+        assertIndex("plant_growth_records", "idx_plant_growth_records_plant_date", "plant_id", "record_date");
+        assertIndex("eco_points_ledger", "idx_eco_points_ledger_user_id", "user_id", "id");
+    }
+
+    private void assertIndex(String table, String index, String... columns) throws SQLException {
+        assertEquals(List.of(columns), indexColumns(table).get(index), table + "." + index);
+    }
+
+    // index name -> columns in index order
+    private Map<String, List<String>> indexColumns(String table) throws SQLException {
+        Map<String, TreeMap<Short, String>> byIndex = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet rs = metaData.getIndexInfo(null, null, table, false, false)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    if (name != null) {
+                        byIndex.computeIfAbsent(name.toLowerCase(), key -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), rs.getString("COLUMN_NAME").toLowerCase());
+                    }
+                }
+            }
+        }
+        Map<String, List<String>> result = new TreeMap<>();
+        byIndex.forEach((name, columns) -> result.put(name, new ArrayList<>(columns.values())));
+        return result;
+    }
+}
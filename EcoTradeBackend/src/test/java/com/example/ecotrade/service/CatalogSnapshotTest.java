@@ -0,0 +1,80 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.model.Product.ProductCategory;
+import com.example.ecotrade.service.CatalogSnapshot.Row;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+            row(30, "Terracotta Pot", ProductCategory.POTS, false, 18.0, 40),
+            row(10, "Boston Fern", ProductCategory.PLANTS, true, 29.99, 12),
+            row(20, "Organic Plant Fertilizer", ProductCategory.FERTILIZERS, false, 12.5, 100),
+            row(40, "Snake Plant", ProductCategory.PLANTS, true, 24.0, 5)));
+
+    @Test
+    void productsAreServedInIdOrderWithAllColumns() {
+        assertEquals(List.of(10L, 20L, 30L, 40L), ids(snapshot.all()));
+        assertEquals(List.of(10L, 40L), ids(snapshot.byCategory(ProductCategory.PLANTS)));
+        assertEquals(List.of(10L, 40L), ids(snapshot.plants()));
+        assertEquals(List.of(), ids(snapshot.byCategory(ProductCategory.TOOLS)));
+
+        ProductDTO fern = snapshot.get(10);
+        assertEquals(new ProductDTO(10L, "Boston Fern", "Boston Fern for the catalog", 29.99, 50, null, 12,
+                "/images/shared.jpg", ProductCategory.PLANTS, true), fern);
+        assertNull(snapshot.get(11));
+
+        // Every read creates a new DTO, changing one does not change the snapshot
+        fern.setStock(0);
+        assertEquals(12, snapshot.get(10).getStock());
+        assertSame(snapshot.all().get(0).getImageUrl(), snapshot.all().get(1).getImageUrl());
+    }
+
+    @Test
+    void pagesStartAfterTheCursor() {
+        assertEquals(List.of(10L, 20L), ids(snapshot.pageAfter(0, 2)));
+        assertEquals(List.of(30L, 40L), ids(snapshot.pageAfter(20, 5)));
+        assertEquals(List.of(30L, 40L), ids(snapshot.pageAfter(25, Integer.MAX_VALUE)));
+        assertEquals(List.of(), ids(snapshot.pageAfter(40, 5)));
+        assertEquals(List.of(40L), ids(snapshot.pageAfter(ProductCategory.PLANTS, 10, 5)));
+    }
+
+    @Test
+    void changesProduceANewSnapshotAndLeaveThisOneUnchanged() {
+        CatalogSnapshot restocked = snapshot.with(Set.of(40L),
+                List.of(row(40, "Snake Plant", ProductCategory.PLANTS, true, 24.0, 0)));
+        assertEquals(0, restocked.get(40).getStock());
+        assertEquals(5, snapshot.get(40).getStock());
+
+        CatalogSnapshot recategorized = snapshot.with(Set.of(10L),
+                List.of(row(10, "Fern Pot", ProductCategory.POTS, false, 9.0, 3)));
+        assertEquals(List.of(10L, 30L), ids(recategorized.byCategory(ProductCategory.POTS)));
+        assertEquals(List.of(40L), ids(recategorized.plants()));
+
+        // Ids without a row are removed, rows for new ids are added
+        CatalogSnapshot changed = snapshot.with(Set.of(20L, 35L),
+                List.of(row(35, "Watering Can", ProductCategory.TOOLS, false, 15.0, 8)));
+        assertEquals(List.of(10L, 30L, 35L, 40L), ids(changed.all()));
+        assertEquals(List.of(35L), ids(changed.byCategory(ProductCategory.TOOLS)));
+        assertEquals(4, snapshot.size());
+        assertTrue(changed.estimatedBytes() > 0);
+    }
+
+    private static List<Long> ids(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getId).toList();
+    }
+
+    private static Row row(long id, String name, ProductCategory category, boolean isPlant, double price, int stock) {
+        return new Row(id, name, name + " for the catalog", price, 50, null, stock, new String("/images/shared.jpg"),
+                category, isPlant);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.ConcurrentTasks;
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.EcoPointsLedgerEntryDTO;
+import com.example.ecotrade.dto.PlantDTO;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+
+// Awards are only flushed by the tests, not by the scheduler
+@SpringBootTest(properties = {
+        "ecotrade.eco-points.accumulator.enabled=true",
+        "ecotrade.eco-points.accumulator.flush-interval=1h"
+})
+class EcoPointsServiceTest {
+
+    @MockitoSpyBean
+    private EcoPointsService ecoPointsService;
+
+    @Autowired
+    private EcoPointsAccumulator ecoPointsAccumulator;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void concurrentAwardsAndDeductionsLoseNoUpdates() throws Exception {
+        User user = testData.createUser("eco-points-concurrent");
+        ecoPointsService.addPoints(user.getId(), 1000, "Opening balance");
+
+        ConcurrentTasks.run(200, i -> {
+            if (i % 2 == 0) {
+                ecoPointsService.addPoints(user.getId(), 3, "Plant care");
+            } else {
+                ecoPointsService.deductPoints(user.getId(), 2, "Order discount");
+            }
+        });
+
+        assertEquals(1100, balance(user));
+        assertEquals(201, ledgerRows(user));
+        assertEquals(1100, ledgerSum(user));
+    }
+
+    @Test
+    void concurrentDeductionsNeverOverdrawTheBalance() throws Exception {
+        User user = testData.createUser("eco-points-overdraw");
+        ecoPointsService.addPoints(user.getId(), 10, "Opening balance");
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentTasks.run(40, i -> {
+            try {
+                ecoPointsService.deductPoints(user.getId(), 1, "Order discount");
+                succeeded.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(10, succeeded.get());
+        assertEquals(30, rejected.get());
+        assertEquals(0, balance(user));
+        assertEquals(0, ledgerSum(user));
+    }
+
+    @Test
+    void appliedDeltasWriteOneLedgerRowPerReason() {
+        User gardener = testData.createUser("eco-points-deltas-gardener");
+        User recycler = testData.createUser("eco-points-deltas-recycler");
+
+        ecoPointsService.applyDeltas(Map.of(
+                gardener.getId(), Map.of("Watering", 4, "Fertilizing", 6, "Pruning", 0),
+                recycler.getId(), Map.of("Plastic submission", 25)));
+
+        assertEquals(10, balance(gardener));
+        assertEquals(Map.of("Watering", 4, "Fertilizing", 6), ledgerByReason(gardener));
+        assertEquals(25, balance(recycler));
+        assertEquals(Map.of("Plastic submission", 25), ledgerByReason(recycler));
+    }
+
+    @Test
+    void awardsOfAFailedFlushAreAppliedByTheNextFlush() {
+        User user = testData.createUser("eco-points-failed-flush");
+        ecoPointsAccumulator.addPoints(user.getId(), 5, "Watering");
+        ecoPointsAccumulator.addPoints(user.getId(), 3, "Watering");
+
+        doThrow(new IllegalStateException("Database unavailable")).doCallRealMethod()
+                .when(ecoPointsService).applyDeltas(anyMap());
+        ecoPointsAccumulator.flush();
+        assertEquals(0, balance(user));
+
+        // Merged with the awards kept from the failed flush
+        ecoPointsAccumulator.addPoints(user.getId(), 2, "Watering");
+        ecoPointsAccumulator.flush();
+
+        assertEquals(10, balance(user));
+        assertEquals(Map.of("Watering", 10), ledgerByReason(user));
+    }
+
+    @Test
+    void rolledBackAwardsAreNeverFlushed() {
+        User user = testData.createUser("eco-points-rolled-back");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ecoPointsAccumulator.addPoints(user.getId(), 5, "Watering");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> ecoPointsAccumulator.addPoints(user.getId(), 2, "Watering"));
+        ecoPointsAccumulator.flush();
+
+        assertEquals(2, balance(user));
+        assertEquals(Map.of("Watering", 2), ledgerByReason(user));
+    }
+
+    @Test
+    void plantCareAwardsAreMergedPerMaintenanceType() {
+        User user = testData.createUser("eco-points-plant-care");
+        Product product = testData.createPlantProduct("Eco points fern", 10);
+        PlantDTO first = createPlant(user, product);
+        PlantDTO second = createPlant(user, product);
+
+        plantService.recordMaintenance(first.getId(), "water", null);
+        plantService.recordMaintenance(second.getId(), "Water", null);
+        plantService.recordMaintenance(first.getId(), "prune", null);
+        plantService.recordMaintenance(second.getId(), "prune", null);
+        ecoPointsAccumulator.flush();
+
+        Map<String, Integer> ledger = ledgerByReason(user);
+        assertEquals(Set.of("Plant maintenance: water", "Plant maintenance: prune"), ledger.keySet());
+        assertEquals(10, ledger.get("Plant maintenance: prune"));
+        assertEquals(ledgerSum(user), balance(user));
+    }
+
+    @Test
+    void usersWithLedgerEntriesCanBeDeleted() {
+        User user = testData.createUser("eco-points-deleted");
+        ecoPointsService.addPoints(user.getId(), 10, "Opening balance");
+        ecoPointsService.deductPoints(user.getId(), 4, "Order discount");
+
+        userService.deleteUser(user.getId());
+
+        assertFalse(userRepository.existsById(user.getId()));
+        assertEquals(0, ledgerRows(user));
+    }
+
+    private PlantDTO createPlant(User user, Product product) {
+        PlantDTO plant = new PlantDTO();
+        plant.setUserId(user.getId());
+        plant.setProductId(product.getId());
+        plant.setName(product.getName());
+        plant.setSpecies("Nephrolepis exaltata");
+        plant.setGrowthStage("Seedling");
+        return plantService.createPlant(plant);
+    }
+
+    private int balance(User user) {
+        return userRepository.findEcoPointsById(user.getId()).orElseThrow();
+    }
+
+    private int ledgerRows(User user) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from eco_points_ledger where user_id = ?", Integer.class, user.getId());
+    }
+
+    private int ledgerSum(User user) {
+        return jdbcTemplate.queryForObject(
+                "select coalesce(sum(points), 0) from eco_points_ledger where user_id = ?", Integer.class, user.getId());
+    }
+
+    private Map<String, Integer> ledgerByReason(User user) {
+        List<EcoPointsLedgerEntryDTO> entries = ecoPointsService.getLedger(user.getId(), 100);
+        assertEquals(entries.size(), entries.stream().map(EcoPointsLedgerEntryDTO::getReason).distinct().count());
+        return entries.stream().collect(Collectors.toMap(EcoPointsLedgerEntryDTO::getReason,
+                EcoPointsLedgerEntryDTO::getPoints));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.FlashSaleStockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.ecotrade.TestData.orderDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class FlashSaleStockTest {
+
+    @Autowired
+    private FlashSaleStock flashSaleStock;
+
+    @Autowired
+    private FlashSaleStockRepository flashSaleStockRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void countersNeverOversellAndFlushToTheProductRow() throws Exception {
+        Product product = testData.createProduct("Flash Sale Fern", 5);
+        User user = testData.createUser("flash-sale");
+        flashSaleStock.start(List.of(product.getId()));
+        try {
+            AtomicInteger succeeded = new AtomicInteger();
+            List<OrderDTO> orders = new ArrayList<>();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        OrderDTO order = orderService.createOrder(orderDTO(user, product));
+                        synchronized (orders) {
+                            orders.add(order);
+                        }
+                        succeeded.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // Sold out
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals(5, succeeded.get());
+            assertEquals(0, flashSaleStock.available(product.getId()));
+
+            orderService.cancelOrder(orders.get(0).getId());
+            orderOutbox.dispatchPending();
+            assertEquals(1, flashSaleStock.available(product.getId()));
+
+            flashSaleStock.flush();
+            assertEquals(1, flashSaleStockRepository.findStock(product.getId()));
+        } finally {
+            flashSaleStock.stop();
+        }
+        assertFalse(flashSaleStock.isFlashSale(product.getId()));
+        assertTrue(flashSaleStockRepository.findCheckpoint(product.getId()).orElseThrow().cleanShutdown());
+    }
+
+    @Test
+    void startupSubtractsOrdersThatWereNotFlushedBeforeACrash() {
+        Product product = testData.createProduct("Flash Sale Pot", 10);
+        User user = testData.createUser("flash-crash");
+        orderService.createOrder(orderDTO(user, product));
+        orderService.createOrder(orderDTO(user, product));
+
+        // As if both reservations were made on the counters and the instance died before flushing them
+        flashSaleStockRepository.subtractStock(product.getId(), -2);
+        flashSaleStockRepository.saveCheckpoint(product.getId(), LocalDateTime.now().minusSeconds(5), false);
+
+        flashSaleStock.start(List.of(product.getId()));
+        try {
+            assertEquals(8, flashSaleStock.available(product.getId()));
+            assertEquals(8, flashSaleStockRepository.findStock(product.getId()));
+        } finally {
+            flashSaleStock.stop();
+        }
+    }
+}
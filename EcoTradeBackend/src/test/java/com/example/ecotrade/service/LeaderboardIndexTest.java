@@ -0,0 +1,61 @@
+package com.example.ecotrade.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardIndexTest {
+
+    @Test
+    void ranksMatchAFullSortAfterRandomUpdates() {
+        Random random = new Random(42);
+        LeaderboardIndex index = new LeaderboardIndex();
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            long userId = random.nextInt(2_000);
+            if (random.nextInt(10) == 0) {
+                index.remove(userId);
+                expected.remove(userId);
+            } else {
+                // Few distinct values, so many users tie on points
+                int points = random.nextInt(300);
+                index.put(userId, points);
+                expected.put(userId, points);
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        assertEquals(sorted.size(), index.size());
+        List<LeaderboardIndex.Entry> all = index.range(1, sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            long userId = sorted.get(i).getKey();
+            assertEquals(new LeaderboardIndex.Entry(i + 1, userId, sorted.get(i).getValue()), all.get(i));
+            assertEquals(i + 1, index.rankOf(userId));
+        }
+    }
+
+    @Test
+    void rangeIsClippedToTheRankedUsers() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.put(1, 50);
+        index.put(2, 70);
+        index.put(3, 50);
+
+        assertEquals(List.of(new LeaderboardIndex.Entry(1, 2, 70), new LeaderboardIndex.Entry(2, 1, 50)),
+                index.range(1, 2));
+        assertEquals(List.of(new LeaderboardIndex.Entry(3, 3, 50)), index.range(3, 10));
+        assertEquals(List.of(), index.range(4, 10));
+        assertEquals(0, index.rankOf(4));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.ConcurrentTasks;
+import com.example.ecotrade.dto.LeaderboardEntryDTO;
+import com.example.ecotrade.dto.UserDTO;
+import com.example.ecotrade.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class LeaderboardServiceTest {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EcoPointsService ecoPointsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void committedPointChangesMoveUsersAndRolledBackOnesDoNot() {
+        UserDTO leader = createUser("leaderboard-leader");
+        UserDTO chaser = createUser("leaderboard-chaser");
+        ecoPointsService.addPoints(leader.getId(), 1_000_000, "Leaderboard test");
+        ecoPointsService.addPoints(chaser.getId(), 999_999, "Leaderboard test");
+
+        List<LeaderboardEntryDTO> top = leaderboardService.getTop(2);
+        assertEquals(List.of(leader.getId(), chaser.getId()), top.stream().map(LeaderboardEntryDTO::getUserId).toList());
+        assertEquals("leaderboard-leader", top.get(0).getName());
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            ecoPointsService.addPoints(chaser.getId(), 10, "Rolled back");
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(2, leaderboardService.getRank(chaser.getId()).getRank());
+
+        ecoPointsService.deductPoints(leader.getId(), 2, "Leaderboard test");
+        assertEquals(1, leaderboardService.getRank(chaser.getId()).getRank());
+
+        List<LeaderboardEntryDTO> around = leaderboardService.getAround(leader.getId(), 1);
+        assertEquals(3, around.size());
+        assertEquals(List.of(1, 2, 3), around.stream().map(LeaderboardEntryDTO::getRank).toList());
+        assertEquals(leader.getId(), around.get(1).getUserId());
+
+        // A rebuild from the table gives the same ranking
+        leaderboardService.rebuild();
+        assertEquals(999_998 + leader.getEcoPoints(), leaderboardService.getRank(leader.getId()).getEcoPoints());
+        assertEquals(2, leaderboardService.getRank(leader.getId()).getRank());
+    }
+
+    @Test
+    void aRebuildBetweenACommitAndItsCallbackCountsTheChangeOnce() {
+        UserDTO user = createUser("leaderboard-rebuild-commit");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Registered first, so the rebuild reads the committed balance before the delta is applied
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    leaderboardService.rebuild();
+                }
+            });
+            ecoPointsService.addPoints(user.getId(), 40, "Leaderboard test");
+        });
+
+        assertEquals(user.getEcoPoints() + 40, leaderboardService.getRank(user.getId()).getEcoPoints());
+    }
+
+    @Test
+    void rebuildsDuringConcurrentChangesLoseNoPoints() throws Exception {
+        UserDTO user = createUser("leaderboard-rebuild-concurrent");
+
+        ConcurrentTasks.run(200, i -> {
+            if (i % 20 == 0) {
+                leaderboardService.rebuild();
+            } else {
+                ecoPointsService.addPoints(user.getId(), 1, "Leaderboard test");
+            }
+        });
+
+        assertEquals(user.getEcoPoints() + 190, leaderboardService.getRank(user.getId()).getEcoPoints());
+        assertEquals(userRepository.findEcoPointsById(user.getId()).orElseThrow(),
+                leaderboardService.getRank(user.getId()).getEcoPoints());
+    }
+
+    private UserDTO createUser(String username) {
+        UserDTO user = new UserDTO();
+        user.setName(username);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return userService.createUser(user);
+    }
+}
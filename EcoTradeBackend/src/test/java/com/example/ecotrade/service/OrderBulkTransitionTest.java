@@ -0,0 +1,82 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.BulkResultDTO;
+import com.example.ecotrade.model.Order.OrderStatus;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.ecotrade.TestData.orderDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class OrderBulkTransitionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private EcoPointsService ecoPointsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void bulkTransitionsFollowTheStateMachineAndAwardPointsOnce() {
+        Product product = testData.createProduct("Bulk Fulfillment Pot", 100);
+        User first = testData.createUser("bulk-first");
+        User second = testData.createUser("bulk-second");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(orderService.createOrder(orderDTO(first, product, 1, 10)).getId());
+        }
+        ids.add(orderService.createOrder(orderDTO(second, product, 1, 7)).getId());
+        Long cancelled = orderService.createOrder(orderDTO(second, product, 1, 5)).getId();
+        orderService.cancelOrder(cancelled);
+
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(cancelled);
+        requested.add(-1L);
+        BulkResultDTO confirmed = orderService.transitionOrders(requested, OrderStatus.CONFIRMED);
+        assertEquals(ids, confirmed.getSucceeded());
+        assertEquals("Order cannot be confirmed in current status: CANCELLED", confirmed.getFailed().get(cancelled));
+        assertEquals("Order not found with id: -1", confirmed.getFailed().get(-1L));
+
+        // Delivering before shipping is rejected for every order
+        BulkResultDTO skipped = orderService.transitionOrders(ids, OrderStatus.DELIVERED);
+        assertEquals(List.of(), skipped.getSucceeded());
+        assertEquals(ids.size(), skipped.getFailed().size());
+
+        orderService.transitionOrders(ids, OrderStatus.SHIPPED);
+        BulkResultDTO delivered = orderService.transitionOrders(ids, OrderStatus.DELIVERED);
+        orderOutbox.dispatchPending();
+
+        assertEquals(ids, delivered.getSucceeded());
+        assertEquals(OrderStatus.DELIVERED, orderService.getOrderById(ids.get(0)).getStatus());
+        assertEquals(30, userRepository.findEcoPointsById(first.getId()).orElseThrow());
+        assertEquals(7, userRepository.findEcoPointsById(second.getId()).orElseThrow());
+        assertEquals(3, ecoPointsService.getLedger(first.getId(), 10).size());
+    }
+
+    @Test
+    void onlyFulfillmentStatusesCanBeSetInBulk() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.transitionOrders(List.of(1L), OrderStatus.CANCELLED));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.transitionOrders(List.of(), OrderStatus.SHIPPED));
+    }
+}
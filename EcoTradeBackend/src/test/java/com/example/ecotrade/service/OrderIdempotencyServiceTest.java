@@ -0,0 +1,100 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.exception.IdempotencyConflictException;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.IdempotencyKeyRepository;
+import com.example.ecotrade.repository.ProductRepository;
+import com.example.ecotrade.service.OrderIdempotencyService.IdempotentOrder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.ecotrade.TestData.orderDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "ecotrade.idempotency.store=DATABASE")
+class OrderIdempotencyServiceTest {
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void concurrentDuplicatesCreateASingleOrder() throws Exception {
+        Product product = testData.createProduct("Idempotent Fern", 10);
+        User user = testData.createUser("idempotent-retries");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotentOrder>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return orderIdempotencyService.createOrder("checkout-1", orderDTO(user, product, 2, 0));
+            }));
+        }
+        start.countDown();
+        List<IdempotentOrder> results = new ArrayList<>();
+        for (Future<IdempotentOrder> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(1, results.stream().filter(result -> !result.replayed()).count());
+        assertEquals(1, results.stream().map(result -> result.order().getId()).distinct().count());
+        assertEquals(1, orderService.getOrdersByUserId(user.getId()).size());
+        assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertEquals(results.get(0).order().getId(),
+                idempotencyKeyRepository.find(user.getId(), "checkout-1").orElseThrow().orderId());
+    }
+
+    @Test
+    void keyReusedForADifferentOrderIsRejected() {
+        Product product = testData.createProduct("Idempotent Pot", 10);
+        User user = testData.createUser("idempotent-reuse");
+        orderIdempotencyService.createOrder("checkout-1", orderDTO(user, product, 1, 0));
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> orderIdempotencyService.createOrder("checkout-1", orderDTO(user, product, 3, 0)));
+        assertEquals(9, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void failedOrderCanBeRetriedWithTheSameKey() {
+        Product product = testData.createProduct("Idempotent Seeds", 1);
+        User user = testData.createUser("idempotent-failure");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> orderIdempotencyService.createOrder("checkout-1", orderDTO(user, product, 2, 0)));
+        product.setStock(5);
+        productRepository.save(product);
+
+        // The failed attempt rolled back its key, so the retry places the order
+        IdempotentOrder retried = orderIdempotencyService.createOrder("checkout-1", orderDTO(user, product, 2, 0));
+        assertFalse(retried.replayed());
+        assertEquals(3, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}
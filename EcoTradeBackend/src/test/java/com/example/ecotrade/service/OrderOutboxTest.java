@@ -0,0 +1,151 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.model.Order;
+import com.example.ecotrade.model.OrderOutboxEvent;
+import com.example.ecotrade.model.Plant;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.OrderOutboxRepository;
+import com.example.ecotrade.repository.OrderRepository;
+import com.example.ecotrade.repository.PlantRepository;
+import com.example.ecotrade.repository.ProductRepository;
+import com.example.ecotrade.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.ecotrade.TestData.orderDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderOutboxTest {
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void statusChangesRunTheirSideEffectsOnceThroughTheOutbox() {
+        Product product = testData.createProduct("Outbox Fern", 10);
+        User user = testData.createUser("outbox-lifecycle");
+
+        OrderDTO delivered = orderService.createOrder(orderDTO(user, product, 2, 25));
+        orderService.confirmOrder(delivered.getId());
+        orderService.shipOrder(delivered.getId());
+        orderService.deliverOrder(delivered.getId());
+        OrderDTO cancelled = orderService.createOrder(orderDTO(user, product, 3, 0));
+        orderService.cancelOrder(cancelled.getId());
+        orderOutbox.dispatchPending();
+
+        assertEquals(25, userRepository.findEcoPointsById(user.getId()).orElseThrow());
+        assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getStock());
+        assertFalse(orderOutbox.hasPendingEvents(delivered.getId()));
+        assertFalse(orderOutbox.hasPendingEvents(cancelled.getId()));
+    }
+
+    @Test
+    void cancelledPlantOrdersCanBeDeletedAndKeepTheirPlants() {
+        Product product = testData.createPlantProduct("Outbox Deleted Fern", 10);
+        User user = testData.createUser("outbox-delete-plants");
+
+        OrderDTO order = orderService.createOrder(orderDTO(user, product, 2, 0));
+        orderOutbox.dispatchPending();
+        assertEquals(2, plantService.getPlantsFromUserOrders(user.getId()).size());
+        orderService.cancelOrder(order.getId());
+        orderOutbox.dispatchPending();
+
+        orderService.deleteOrder(order.getId());
+
+        assertFalse(orderRepository.existsById(order.getId()));
+        assertEquals(List.of(), plantService.getPlantsFromUserOrders(user.getId()));
+        List<Plant> plants = plantRepository.findByUserId(user.getId());
+        assertEquals(2, plants.size());
+        assertTrue(plants.stream().allMatch(plant -> plant.getOrderItem() == null));
+    }
+
+    @Test
+    void failedEventIsRetriedLaterAndHoldsBackLaterEventsOfItsOrder() {
+        // An order that does not exist makes the handler fail
+        OrderOutboxEvent failing = orderOutboxRepository.save(createEvent(-1L, Order.OrderStatus.PENDING));
+        OrderOutboxEvent later = orderOutboxRepository.save(createEvent(-1L, Order.OrderStatus.CANCELLED));
+
+        orderOutbox.dispatchPending();
+
+        OrderOutboxEvent retried = orderOutboxRepository.findById(failing.getId()).orElseThrow();
+        assertEquals(OrderOutboxEvent.State.PENDING, retried.getState());
+        assertEquals(1, retried.getAttempts());
+        assertNotNull(retried.getLastError());
+        assertTrue(retried.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(0, orderOutboxRepository.findById(later.getId()).orElseThrow().getAttempts());
+
+        orderOutboxRepository.deleteAll(List.of(retried, later));
+    }
+
+    @Test
+    void eventsWaitingForRetryDoNotHoldBackDueEventsOfOtherOrders() {
+        User user = testData.createUser("outbox-backlog");
+        OrderDTO order = orderService.createOrder(orderDTO(user, testData.createProduct("Outbox Cactus", 5), 1, 0));
+        orderOutbox.dispatchPending();
+
+        // More events waiting for a retry than fit in one batch, all older than the due event
+        List<OrderOutboxEvent> waiting = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            OrderOutboxEvent event = createEvent(-1000L - i, Order.OrderStatus.PENDING);
+            event.setAttempts(1);
+            event.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+            waiting.add(event);
+        }
+        OrderOutboxEvent blocker = waiting.get(0);
+        waiting = orderOutboxRepository.saveAll(waiting);
+        OrderOutboxEvent heldBack = orderOutboxRepository.save(createEvent(blocker.getOrderId(), Order.OrderStatus.CANCELLED));
+        OrderOutboxEvent due = orderOutboxRepository.save(createEvent(order.getId(), Order.OrderStatus.PENDING));
+
+        orderOutbox.dispatchPending();
+
+        assertEquals(OrderOutboxEvent.State.DONE, orderOutboxRepository.findById(due.getId()).orElseThrow().getState());
+        // A later event of an order waiting for a retry stays behind it
+        assertEquals(0, orderOutboxRepository.findById(heldBack.getId()).orElseThrow().getAttempts());
+
+        orderOutboxRepository.deleteAll(waiting);
+        orderOutboxRepository.delete(heldBack);
+    }
+
+    private OrderOutboxEvent createEvent(Long orderId, Order.OrderStatus status) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(orderId);
+        event.setOrderStatus(status);
+        return event;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.ConcurrentTasks;
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.ecotrade.TestData.orderDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class OrderServiceConcurrencyTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void concurrentCheckoutsNeverOversellTheLastUnits() throws Exception {
+        Product product = testData.createPlantProduct("Last Units Fern", 5);
+        User user = testData.createUser("concurrency-last-units");
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentTasks.run(40, i -> {
+            try {
+                orderService.createOrder(orderDTO(user, product));
+                succeeded.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(5, succeeded.get());
+        assertEquals(35, rejected.get());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void ordersWithItemsInOppositeOrderDoNotDeadlock() throws Exception {
+        Product first = testData.createPlantProduct("Lock Order Pot", 1000);
+        Product second = testData.createPlantProduct("Lock Order Seeds", 1000);
+        User user = testData.createUser("concurrency-lock-order");
+
+        ConcurrentTasks.run(100, i -> {
+            // Half of the orders list the products in reverse order
+            if (i % 2 == 0) {
+                orderService.createOrder(orderDTO(user, first, second));
+            } else {
+                orderService.createOrder(orderDTO(user, second, first));
+            }
+        });
+
+        assertEquals(900, productRepository.findById(first.getId()).orElseThrow().getStock());
+        assertEquals(900, productRepository.findById(second.getId()).orElseThrow().getStock());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.JdbcExecutionCounter;
+import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.dto.OrderItemDTO;
+import com.example.ecotrade.model.Order;
+import com.example.ecotrade.model.OrderItem;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.OrderRepository;
+import com.example.ecotrade.repository.ProductRepository;
+import com.example.ecotrade.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderServiceQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void getOrdersByUserIdUsesConstantNumberOfStatements() {
+        Product first = createProduct("Query Count Pot");
+        Product second = createProduct("Query Count Seeds");
+        User smallUser = createUserWithOrders("small", 5, first, second);
+        User largeUser = createUserWithOrders("large", 500, first, second);
+
+        long smallCount = countStatements(() -> assertEquals(5, orderService.getOrdersByUserId(smallUser.getId()).size()));
+        long largeCount = countStatements(() -> {
+            List<OrderDTO> orders = orderService.getOrdersByUserId(largeUser.getId());
+            assertEquals(500, orders.size());
+            // Items have no defined order, compare the product names of each order as a set
+            for (OrderDTO order : orders) {
+                assertEquals(Set.of("Query Count Pot", "Query Count Seeds"), order.getItems().stream()
+                        .map(OrderItemDTO::getProductName).collect(Collectors.toSet()));
+            }
+        });
+
+        assertEquals(1, largeCount);
+        assertEquals(smallCount, largeCount);
+    }
+
+    @Test
+    void orderInsertsAreSentAsJdbcBatches() {
+        Product first = createProduct("Batch Insert Pot");
+        Product second = createProduct("Batch Insert Seeds");
+
+        // 200 orders and 400 items: one round trip per batch of 50 instead of one per row
+        long before = JdbcExecutionCounter.roundTrips();
+        createUserWithOrders("batched", 200, first, second);
+        long roundTrips = JdbcExecutionCounter.roundTrips() - before;
+
+        assertTrue(roundTrips <= 20, "expected batched inserts but got " + roundTrips + " round trips");
+    }
+
+    private long countStatements(Runnable action) {
+        long before = JdbcExecutionCounter.roundTrips();
+        action.run();
+        return JdbcExecutionCounter.roundTrips() - before;
+    }
+
+    private Product createProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name);
+        product.setPrice(9.99);
+        product.setStock(1000);
+        product.setCategory(Product.ProductCategory.POTS);
+        return productRepository.save(product);
+    }
+
+    private User createUserWithOrders(String name, int orderCount, Product first, Product second) {
+        User user = new User();
+        user.setName(name);
+        user.setUsername("query-count-" + name);
+        user.setEmail("query-count-" + name + "@example.com");
+        user.setPassword("password");
+        user = userRepository.save(user);
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setTotalAmount(19.98);
+            order.addItem(createItem(first));
+            order.addItem(createItem(second));
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+        return user;
+    }
+
+    private OrderItem createItem(Product product) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setPrice(product.getPrice());
+        return item;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.PlantDTO;
+import com.example.ecotrade.dto.PlantGrowthBucketDTO;
+import com.example.ecotrade.dto.PlantGrowthBucketDTO.Resolution;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.PlantGrowthRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class PlantGrowthHistoryTest {
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private PlantGrowthRollupRepository plantGrowthRollupRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void maintenanceRecordsAreRolledUpPerDay() {
+        PlantDTO plant = createPlant("growth-today");
+
+        plantService.recordMaintenance(plant.getId(), "water", "first", 10.0);
+        plantService.recordMaintenance(plant.getId(), "prune", "no height");
+        plantService.recordMaintenance(plant.getId(), "water", "second", 14.0);
+
+        List<PlantGrowthBucketDTO> days = plantService.getGrowthHistory(plant.getId(), null, null, Resolution.DAY);
+        assertEquals(1, days.size());
+        assertEquals(LocalDate.now(), days.get(0).getBucketStart());
+        assertEquals(3, days.get(0).getRecordCount());
+        assertEquals(10.0, days.get(0).getMinHeightCm());
+        assertEquals(14.0, days.get(0).getMaxHeightCm());
+        assertEquals(12.0, days.get(0).getAvgHeightCm(), 1e-9);
+    }
+
+    @Test
+    void dailyRollupsAreMergedIntoWeeksAndMonths() {
+        PlantDTO plant = createPlant("growth-history");
+        // Monday 2024-01-29 to Tuesday 2024-02-06, one height a day growing by 1 cm
+        LocalDate first = LocalDate.of(2024, 1, 29);
+        for (int i = 0; i < 9; i++) {
+            plantGrowthRollupRepository.recordAdded(plant.getId(), first.plusDays(i), 20.0 + i);
+        }
+        plantGrowthRollupRepository.recordAdded(plant.getId(), first, null);
+
+        List<PlantGrowthBucketDTO> weeks = plantService.getGrowthHistory(
+                plant.getId(), first, first.plusDays(8), Resolution.WEEK);
+        assertEquals(2, weeks.size());
+        assertEquals(first, weeks.get(0).getBucketStart());
+        assertEquals(8, weeks.get(0).getRecordCount());
+        assertEquals(20.0, weeks.get(0).getMinHeightCm());
+        assertEquals(26.0, weeks.get(0).getMaxHeightCm());
+        assertEquals(23.0, weeks.get(0).getAvgHeightCm(), 1e-9);
+        assertEquals(27.5, weeks.get(1).getAvgHeightCm(), 1e-9);
+
+        List<PlantGrowthBucketDTO> months = plantService.getGrowthHistory(
+                plant.getId(), first, first.plusDays(8), Resolution.MONTH);
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1)),
+                months.stream().map(PlantGrowthBucketDTO::getBucketStart).toList());
+        assertEquals(4, months.get(0).getRecordCount());
+        assertEquals(6, months.get(1).getRecordCount());
+
+        // The range clips the buckets at its edges
+        List<PlantGrowthBucketDTO> clipped = plantService.getGrowthHistory(
+                plant.getId(), first.plusDays(1), first.plusDays(2), Resolution.MONTH);
+        assertEquals(1, clipped.size());
+        assertEquals(21.5, clipped.get(0).getAvgHeightCm(), 1e-9);
+    }
+
+    @Test
+    void emptyRangesAndInvalidRangesAreHandled() {
+        PlantDTO plant = createPlant("growth-empty");
+        plantGrowthRollupRepository.recordAdded(plant.getId(), LocalDate.of(2024, 3, 1), null);
+
+        List<PlantGrowthBucketDTO> days = plantService.getGrowthHistory(plant.getId(), null, null, Resolution.DAY);
+        assertEquals(1, days.get(0).getRecordCount());
+        assertNull(days.get(0).getAvgHeightCm());
+        assertThrows(IllegalArgumentException.class, () -> plantService.getGrowthHistory(plant.getId(),
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), Resolution.DAY));
+    }
+
+    private PlantDTO createPlant(String name) {
+        User user = testData.createUser(name);
+        Product product = testData.createPlantProduct(name, 10);
+
+        PlantDTO plant = new PlantDTO();
+        plant.setUserId(user.getId());
+        plant.setProductId(product.getId());
+        plant.setName(name);
+        plant.setSpecies("Ficus lyrata");
+        plant.setGrowthStage("Seedling");
+        return plantService.createPlant(plant);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.PlantDTO;
+import com.example.ecotrade.dto.UserSummaryDTO;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "ecotrade.plant-stages.chunk-size=2")
+class PlantGrowthStageJobTest {
+
+    @Autowired
+    private PlantGrowthStageJob plantGrowthStageJob;
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private UserSummaryService userSummaryService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void stagesAndStageCountersFollowThePlantingDate() {
+        User user = testData.createUser("stage-user");
+        Product product = testData.createPlantProduct("Stage fern", 10);
+        LocalDate today = LocalDate.now();
+        List<PlantDTO> plants = new ArrayList<>();
+        for (int days : new int[] { 3, 13, 14, 44, 45, 89, 90, 400 }) {
+            plants.add(createPlant(user, product, today.minusDays(days)));
+        }
+
+        plantGrowthStageJob.recomputeStages();
+
+        assertEquals(List.of("Seedling", "Seedling", "Young Plant", "Young Plant", "Mature Plant", "Mature Plant",
+                        "Fully Grown", "Fully Grown"),
+                plants.stream().map(plant -> plantService.getPlantById(plant.getId()).getGrowthStage()).toList());
+        UserSummaryDTO summary = userSummaryService.getSummary(user.getId());
+        assertEquals(Map.of("Seedling", 2L, "Young Plant", 2L, "Mature Plant", 2L, "Fully Grown", 2L),
+                summary.getPlantsByGrowthStage());
+
+        // Nothing left to change, and the counters agree with a full recomputation
+        assertEquals(0, plantGrowthStageJob.recomputeStages());
+        userSummaryService.rebuildAll();
+        assertEquals(summary.getPlantsByGrowthStage(),
+                userSummaryService.getSummary(user.getId()).getPlantsByGrowthStage());
+    }
+
+    @Test
+    void maintenanceNoLongerWritesTheStage() {
+        User user = testData.createUser("stage-maintenance");
+        PlantDTO plant = createPlant(user, testData.createPlantProduct("Stage cactus", 10), LocalDate.now().minusDays(120));
+
+        plantService.recordMaintenance(plant.getId(), "water", "weekly");
+
+        assertEquals("Seedling", plantService.getPlantById(plant.getId()).getGrowthStage());
+    }
+
+    private PlantDTO createPlant(User user, Product product, LocalDate plantingDate) {
+        PlantDTO plant = new PlantDTO();
+        plant.setUserId(user.getId());
+        plant.setProductId(product.getId());
+        plant.setName(product.getName());
+        plant.setSpecies("Nephrolepis exaltata");
+        plant.setPlantingDate(plantingDate);
+        plant.setGrowthStage("Seedling");
+        return plantService.createPlant(plant);
+    }
+}
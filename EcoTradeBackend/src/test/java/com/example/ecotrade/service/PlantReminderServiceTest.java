@@ -0,0 +1,180 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.PlantDTO;
+import com.example.ecotrade.dto.PlantReminderDTO;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.ecotrade.TestData.orderDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PlantReminderServiceTest {
+
+    @TestConfiguration
+    static class RecordingSinkConfig {
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements PlantReminderSink {
+        final List<PlantReminderDTO> delivered = new ArrayList<>();
+
+        @Override
+        public synchronized void deliver(List<PlantReminderDTO> reminders) {
+            delivered.addAll(reminders);
+        }
+    }
+
+    @Autowired
+    private PlantReminderService plantReminderService;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void plantsAreRemindedWhenTheirCareWindowOpens() {
+        LocalDate today = LocalDate.now();
+        User user = testData.createUser("reminder-user");
+        Product product = testData.createPlantProduct("Reminder fern", 10);
+        PlantDTO thirsty = createPlant(user, product, today.minusDays(6), null);
+        PlantDTO watered = createPlant(user, product, today.minusDays(2), null);
+        PlantDTO deleted = createPlant(user, product, null, today.minusDays(30));
+        PlantDTO fertilized = createPlant(user, product, null, today.minusDays(3));
+        plantService.deletePlant(deleted.getId());
+        Set<Long> ids = Set.of(thirsty.getId(), watered.getId(), deleted.getId(), fertilized.getId());
+
+        plantReminderService.sendDueReminders(today);
+        List<PlantReminderDTO> first = delivered(ids);
+        assertEquals(1, first.size());
+        assertEquals(thirsty.getId(), first.get(0).getPlantId());
+        assertEquals("WATERING", first.get(0).getCareType());
+        assertEquals(today.minusDays(1), first.get(0).getWindowStart());
+        assertEquals(today.plusDays(3), first.get(0).getWindowEnd());
+
+        // Watering moves the reminder to five days from today, a reminder already sent is not repeated
+        plantService.waterPlant(watered.getId());
+        plantService.fertilizePlant(thirsty.getId());
+        plantReminderService.sendDueReminders(today.plusDays(4));
+        assertEquals(List.of(), delivered(ids));
+
+        // Care a plant never had counts from its planting date, today
+        plantReminderService.sendDueReminders(today.plusDays(5));
+        assertEquals(List.of(watered.getId(), fertilized.getId()),
+                delivered(ids).stream().map(PlantReminderDTO::getPlantId).sorted().toList());
+
+        plantReminderService.sendDueReminders(today.plusDays(25));
+        assertEquals(List.of(thirsty.getId(), watered.getId(), fertilized.getId()),
+                delivered(ids).stream().map(PlantReminderDTO::getPlantId).sorted().toList());
+    }
+
+    @Test
+    void overduePlantsAreRemindedOncePerCareDate() {
+        LocalDate today = LocalDate.now();
+        User user = testData.createUser("reminder-overdue");
+        Product product = testData.createPlantProduct("Reminder cactus", 10);
+        PlantDTO neglected = createPlant(user, product, today.minusDays(12), today.minusDays(40));
+        Set<Long> ids = Set.of(neglected.getId());
+
+        plantReminderService.sendDueReminders(today);
+        List<PlantReminderDTO> reminders = delivered(ids);
+        assertEquals(List.of("FERTILIZING", "WATERING"),
+                reminders.stream().map(PlantReminderDTO::getCareType).sorted().toList());
+        assertTrue(reminders.stream().allMatch(PlantReminderDTO::isOverdue));
+        PlantReminderDTO watering = reminders.stream()
+                .filter(reminder -> reminder.getCareType().equals("WATERING")).findFirst().orElseThrow();
+        assertEquals(today.minusDays(3), watering.getWindowEnd());
+
+        plantReminderService.sendDueReminders(today.plusDays(1));
+        assertEquals(List.of(), delivered(ids));
+    }
+
+    @Test
+    void orderPlantsAreRemindedFromTheirPlantingDate() {
+        LocalDate today = LocalDate.now();
+        User user = testData.createUser("reminder-order");
+        Product product = testData.createPlantProduct("Reminder monstera", 10);
+        orderService.createOrder(orderDTO(user, product));
+        orderOutbox.dispatchPending();
+        PlantDTO plant = plantService.getPlantsFromUserOrders(user.getId()).get(0);
+        Set<Long> ids = Set.of(plant.getId());
+
+        plantReminderService.sendDueReminders(today.plusDays(4));
+        assertEquals(List.of(), delivered(ids));
+
+        plantReminderService.sendDueReminders(today.plusDays(5));
+        List<PlantReminderDTO> reminders = delivered(ids);
+        assertEquals(1, reminders.size());
+        assertEquals("WATERING", reminders.get(0).getCareType());
+        assertEquals(today, reminders.get(0).getLastCared());
+        assertFalse(reminders.get(0).isOverdue());
+    }
+
+    @Test
+    void restartsDoNotRepeatReminders() {
+        LocalDate today = LocalDate.now();
+        User user = testData.createUser("reminder-restart");
+        Product product = testData.createPlantProduct("Reminder palm", 10);
+        PlantDTO thirsty = createPlant(user, product, today.minusDays(6), null);
+        PlantDTO forgotten = createPlant(user, product, today.minusDays(20), null);
+        Set<Long> ids = Set.of(thirsty.getId(), forgotten.getId());
+
+        plantReminderService.sendDueReminders(today);
+        assertEquals(List.of(thirsty.getId(), forgotten.getId()),
+                delivered(ids).stream().map(PlantReminderDTO::getPlantId).sorted().toList());
+
+        // A restart loads the wheel again while the watering window of the first plant is still open
+        plantReminderService.load();
+        plantReminderService.sendDueReminders(today.plusDays(1));
+        assertEquals(List.of(), delivered(ids));
+    }
+
+    private List<PlantReminderDTO> delivered(Set<Long> plantIds) {
+        synchronized (recordingSink) {
+            List<PlantReminderDTO> reminders = recordingSink.delivered.stream()
+                    .filter(reminder -> plantIds.contains(reminder.getPlantId()))
+                    .toList();
+            recordingSink.delivered.clear();
+            return reminders;
+        }
+    }
+
+    private PlantDTO createPlant(User user, Product product, LocalDate lastWatered, LocalDate lastFertilized) {
+        PlantDTO plant = new PlantDTO();
+        plant.setUserId(user.getId());
+        plant.setProductId(product.getId());
+        plant.setName(product.getName());
+        plant.setSpecies("Nephrolepis exaltata");
+        plant.setGrowthStage("Seedling");
+        plant.setLastWatered(lastWatered);
+        plant.setLastFertilized(lastFertilized);
+        return plantService.createPlant(plant);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.BulkResultDTO;
+import com.example.ecotrade.model.PlasticSubmission;
+import com.example.ecotrade.model.PlasticSubmission.SubmissionStatus;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.PlasticSubmissionRepository;
+import com.example.ecotrade.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PlasticSubmissionBulkReviewTest {
+
+    @Autowired
+    private PlasticSubmissionService plasticSubmissionService;
+
+    @Autowired
+    private PlasticSubmissionRepository plasticSubmissionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void bulkVerifyAwardsAggregatedPointsOncePerSubmission() {
+        User first = testData.createUser("bulk-review-first");
+        User second = testData.createUser("bulk-review-second");
+
+        List<PlasticSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            // 1.26 points rounds to 1 per submission, so per-row rounding is observable in the total
+            submissions.add(newSubmission(i % 3 == 0 ? second : first, 1.26, SubmissionStatus.PENDING));
+        }
+        PlasticSubmission alreadyVerified = newSubmission(first, 50.0, SubmissionStatus.VERIFIED);
+        submissions.add(alreadyVerified);
+        plasticSubmissionRepository.saveAll(submissions);
+
+        List<Long> ids = new ArrayList<>(submissions.stream().map(PlasticSubmission::getId).toList());
+        ids.add(Long.MAX_VALUE);
+        ids.add(submissions.get(0).getId());
+
+        BulkResultDTO result = plasticSubmissionService.verifySubmissions(ids, "Checked at drop-off");
+
+        assertEquals(1500, result.getSucceeded().size());
+        assertEquals(2, result.getFailed().size());
+        assertEquals("Plastic submission is already VERIFIED", result.getFailed().get(alreadyVerified.getId()));
+        assertTrue(result.getFailed().get(Long.MAX_VALUE).startsWith("Plastic submission not found"));
+
+        assertEquals(1000, userRepository.findEcoPointsById(first.getId()).orElseThrow());
+        assertEquals(500, userRepository.findEcoPointsById(second.getId()).orElseThrow());
+        PlasticSubmission verified = plasticSubmissionRepository.findById(submissions.get(1).getId()).orElseThrow();
+        assertEquals(SubmissionStatus.VERIFIED, verified.getStatus());
+        assertEquals("Checked at drop-off", verified.getVerificationNotes());
+
+        BulkResultDTO again = plasticSubmissionService.rejectSubmissions(ids, "Duplicate");
+        assertEquals(0, again.getSucceeded().size());
+        assertEquals(1000, userRepository.findEcoPointsById(first.getId()).orElseThrow());
+    }
+
+    private PlasticSubmission newSubmission(User user, double ecoPoints, SubmissionStatus status) {
+        PlasticSubmission submission = new PlasticSubmission();
+        submission.setUser(user);
+        submission.setWeight(ecoPoints / 10);
+        submission.setPlasticType("PVC");
+        submission.setEcoPoints(ecoPoints);
+        submission.setStatus(status);
+        return submission;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.PlasticSubmissionAckDTO;
+import com.example.ecotrade.dto.PlasticSubmissionAckDTO.AckStatus;
+import com.example.ecotrade.dto.PlasticSubmissionDTO;
+import com.example.ecotrade.model.PlasticSubmission;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.PlasticSubmissionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class PlasticSubmissionIntakeTest {
+
+    @Autowired
+    private PlasticSubmissionIntake plasticSubmissionIntake;
+
+    @Autowired
+    private PlasticSubmissionRepository plasticSubmissionRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void bulkSubmissionsAreStoredWithPerItemAcknowledgements() {
+        Long userId = testData.createUser("intake-user").getId();
+
+        List<PlasticSubmissionDTO> submissions = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            submissions.add(submission(userId, 2.0, "PET"));
+        }
+        submissions.add(submission(Long.MAX_VALUE, 1.0, "PET"));
+        submissions.add(submission(userId, 0.0, "PVC"));
+
+        List<PlasticSubmissionAckDTO> acks = plasticSubmissionIntake.submit(submissions);
+
+        assertEquals(submissions.size(), acks.size());
+        for (int i = 0; i < 1200; i++) {
+            PlasticSubmissionAckDTO ack = acks.get(i);
+            assertEquals(i, ack.getIndex());
+            assertEquals(AckStatus.CREATED, ack.getStatus());
+            assertNotNull(ack.getSubmissionId());
+            assertEquals(24.0, ack.getEcoPoints(), 0.0001);
+        }
+        assertEquals(AckStatus.REJECTED, acks.get(1200).getStatus());
+        assertEquals("User not found with id: " + Long.MAX_VALUE, acks.get(1200).getMessage());
+        assertEquals(AckStatus.REJECTED, acks.get(1201).getStatus());
+        assertNull(acks.get(1201).getSubmissionId());
+
+        List<PlasticSubmission> stored = plasticSubmissionRepository.findByUserId(userId);
+        assertEquals(1200, stored.size());
+        PlasticSubmission first = plasticSubmissionRepository.findById(acks.get(0).getSubmissionId()).orElseThrow();
+        assertEquals(PlasticSubmission.SubmissionStatus.PENDING, first.getStatus());
+        assertEquals("Drop-off point 1", first.getLocation());
+    }
+
+    private PlasticSubmissionDTO submission(Long userId, double weight, String plasticType) {
+        PlasticSubmissionDTO dto = new PlasticSubmissionDTO();
+        dto.setUserId(userId);
+        dto.setWeight(weight);
+        dto.setPlasticType(plasticType);
+        dto.setLocation("Drop-off point 1");
+        return dto;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.exception.ResourceNotFoundException;
+import com.example.ecotrade.model.Product.ProductCategory;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.ecotrade.TestData.orderDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProductCatalogTest {
+
+    private static final int FILLER_PRODUCTS = 20_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void catalogReadsFollowProductWrites() {
+        ProductDTO created = productService.createProduct(product("Catalog Watering Can", ProductCategory.TOOLS));
+        Long id = created.getId();
+        assertEquals("Catalog Watering Can", productService.getProductById(id).getName());
+        assertTrue(ids(productService.getProductsByCategory(ProductCategory.TOOLS)).contains(id));
+
+        ProductDTO update = product("Catalog Watering Can", ProductCategory.PLANTS);
+        update.setIsPlant(true);
+        update.setStock(3);
+        productService.updateProduct(id, update);
+        assertEquals(3, productService.getProductById(id).getStock());
+        assertFalse(ids(productService.getProductsByCategory(ProductCategory.TOOLS)).contains(id));
+        assertTrue(ids(productService.getPlants()).contains(id));
+
+        productService.deleteProduct(id);
+        assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(id));
+        assertFalse(ids(productService.getAllProducts()).contains(id));
+    }
+
+    @Test
+    void rolledBackChangesAreNotApplied() {
+        Long id = productService.createProduct(product("Catalog Trowel", ProductCategory.TOOLS)).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE products SET stock = 0 WHERE id = ?", id);
+            productCatalog.refresh(List.of(id));
+            status.setRollbackOnly();
+        });
+        assertEquals(10, productService.getProductById(id).getStock());
+
+        // Rows written around the services show up with the next reload
+        jdbcTemplate.update("UPDATE products SET stock = 7 WHERE id = ?", id);
+        assertEquals(10, productService.getProductById(id).getStock());
+        productCatalog.reload();
+        assertEquals(7, productService.getProductById(id).getStock());
+    }
+
+    @Test
+    void ordersAgainstALargeSnapshotUpdateStockInPlace() {
+        // Rows written around the services with ids far past the generated ones
+        long firstFillerId = 900_000_000L;
+        List<Object[]> filler = new ArrayList<>();
+        for (int i = 0; i < FILLER_PRODUCTS; i++) {
+            filler.add(new Object[] {firstFillerId + i, "Catalog Filler " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, eco_points_cost, stock, "
+                + "category, is_plant) VALUES (?, ?, 'Filler', 1.0, 0, 100, 'SEEDS', false)", filler);
+        try {
+            Product product = testData.createProduct("Catalog Seed Tray", 10);
+            productCatalog.reload();
+            CatalogSnapshot snapshot = productCatalog.current();
+            assertTrue(snapshot.size() > FILLER_PRODUCTS);
+
+            User user = testData.createUser("catalog-orders");
+            for (int i = 0; i < 6; i++) {
+                orderService.createOrder(orderDTO(user, product));
+            }
+            productCatalog.refreshStock();
+
+            assertEquals(4, productService.getProductById(product.getId()).getStock());
+            // Checkouts neither copied nor replaced the snapshot
+            assertSame(snapshot, productCatalog.current());
+        } finally {
+            jdbcTemplate.update("DELETE FROM products WHERE id >= ?", firstFillerId);
+            productCatalog.reload();
+        }
+    }
+
+    private static List<Long> ids(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getId).toList();
+    }
+
+    private static ProductDTO product(String name, ProductCategory category) {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setDescription(name + " for catalog tests");
+        product.setPrice(15.0);
+        product.setEcoPointsCost(0);
+        product.setStock(10);
+        product.setCategory(category);
+        product.setIsPlant(false);
+        return product;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.model.Product.ProductCategory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    ProductSearchIndexTest() {
+        index.put(1, "Boston Fern", "Lush fern for shady corners", ProductCategory.PLANTS, true, 29.99);
+        index.put(2, "Organic Plant Fertilizer", "Slow release, fern friendly", ProductCategory.FERTILIZERS, false, 12.5);
+        index.put(3, "Terracotta Pot", "Hand-made pot for ferns and succulents", ProductCategory.POTS, false, 18.0);
+        index.put(4, "Café Cactus", "Low maintenance desert plant", ProductCategory.PLANTS, true, 9.0);
+    }
+
+    @Test
+    void wordsMatchAsPrefixesAndNameMatchesRankFirst() {
+        assertEquals(List.of(1L, 2L, 3L), search("fern", null, null, null, null).ids());
+        // A word scores its best matching term: "fern" in a name beats "fertilizer" in a name and category
+        assertEquals(List.of(1L, 2L, 3L), search("fer", null, null, null, null).ids());
+        // Every word must match; accents and case are ignored
+        assertEquals(List.of(3L), search("FERN pot", null, null, null, null).ids());
+        assertEquals(List.of(4L), search("cafe", null, null, null, null).ids());
+        // Category names are indexed too
+        assertEquals(List.of(2L), search("fertilizers", null, null, null, null).ids());
+        assertEquals(List.of(), search("orchid", null, null, null, null).ids());
+    }
+
+    @Test
+    void filtersNarrowTheHitsAndFacetsIgnoreTheirOwnFilter() {
+        ProductSearchIndex.Result result = search("fern", ProductCategory.PLANTS, null, null, 20.0);
+        assertEquals(List.of(), result.ids());
+        assertEquals(Map.of(ProductCategory.FERTILIZERS, 1L, ProductCategory.POTS, 1L), result.categoryCounts());
+
+        result = search(null, null, true, 5.0, null);
+        assertEquals(2, result.total());
+        assertEquals(List.of(1L, 4L), result.ids());
+        assertEquals(Map.of(ProductCategory.PLANTS, 2L), result.categoryCounts());
+        assertEquals(Map.of(true, 2L, false, 2L), result.isPlantCounts());
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceThePreviousTerms() {
+        index.put(1, "Boston Sword Fern", "Nephrolepis", ProductCategory.PLANTS, true, 31.0);
+        index.remove(3);
+
+        assertEquals(List.of(1L), search("nephro", null, null, null, null).ids());
+        assertEquals(List.of(), search("lush", null, null, null, null).ids());
+        assertEquals(List.of(), search("pot", null, null, null, null).ids());
+        assertEquals(3, index.size());
+        assertEquals(List.of("Boston Sword Fern", "Organic Plant Fertilizer"), index.suggest("fer", 5));
+        assertEquals(List.of("Organic Plant Fertilizer"), index.suggest("fert", 1));
+    }
+
+    private ProductSearchIndex.Result search(String text, ProductCategory category, Boolean isPlant,
+                                             Double minPrice, Double maxPrice) {
+        return index.search(new ProductSearchIndex.Query(text, category, isPlant, minPrice, maxPrice, 0, 50));
+    }
+}
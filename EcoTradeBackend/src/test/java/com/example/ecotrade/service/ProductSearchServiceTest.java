@@ -0,0 +1,61 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.dto.ProductSearchResultDTO;
+import com.example.ecotrade.model.Product.ProductCategory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ProductSearchServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void productWritesAreSearchableWithoutARebuild() {
+        ProductDTO created = productService.createProduct(product("Zanzibar Gem", "Zamioculcas, thrives on neglect"));
+
+        ProductSearchResultDTO result = productService.searchProducts("zamio", null, null, null, null, null, null);
+        assertEquals(List.of(created.getId()), result.getItems().stream().map(ProductDTO::getId).toList());
+        assertEquals(1, result.getTotal());
+        assertEquals(10, result.getItems().get(0).getStock());
+
+        ProductDTO update = product("Zanzibar Gem XL", "Large Zamioculcas");
+        update.setPrice(120.0);
+        update.setStock(10);
+        productService.updateProduct(created.getId(), update);
+        assertEquals(0, productService.searchProducts("zamio neglect", null, null, null, null, null, null).getTotal());
+        assertEquals(1, productService.searchProducts("zamio", null, null, 100.0, null, null, null).getTotal());
+        assertEquals(List.of("Zanzibar Gem XL"), productService.suggestProductNames("zanz", null));
+
+        productService.deleteProduct(created.getId());
+        assertEquals(0, productService.searchProducts("zamio", null, null, null, null, null, null).getTotal());
+    }
+
+    @Test
+    void invalidRangesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.searchProducts("fern", ProductCategory.PLANTS, null, 20.0, 10.0, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.searchProducts("fern", null, null, null, null, null, -1));
+    }
+
+    private ProductDTO product(String name, String description) {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(25.0);
+        product.setEcoPointsCost(0);
+        product.setStock(10);
+        product.setCategory(ProductCategory.PLANTS);
+        product.setIsPlant(true);
+        return product;
+    }
+}
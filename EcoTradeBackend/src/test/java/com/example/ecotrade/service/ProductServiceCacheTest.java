@@ -0,0 +1,140 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.dto.ProductDTO;
+import com.example.ecotrade.exception.ResourceNotFoundException;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.Product.ProductCategory;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.ecotrade.TestData.orderDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Without the catalog snapshot, catalog reads go through the product caches. The test has its own
+// database, so the outbox poller of another cached test context cannot handle its order events and
+// leave its caches stale
+@SpringBootTest(properties = {
+        "ecotrade.catalog.snapshot.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:product_cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+class ProductServiceCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void readsAfterAnUpdateSeeTheNewProduct() {
+        Product product = testData.createProduct("Cache Watering Can", 10);
+        Long id = product.getId();
+        assertNull(productCatalog.current());
+        readAll(id, product.getCategory());
+
+        ProductDTO update = productService.getProductById(id);
+        update.setName("Cache Watering Can XL");
+        update.setStock(4);
+        update.setCategory(ProductCategory.PLANTS);
+        update.setIsPlant(true);
+        productService.updateProduct(id, update);
+
+        assertEquals("Cache Watering Can XL", productService.getProductById(id).getName());
+        assertEquals(4, productService.getProductById(id).getStock());
+        assertTrue(find(productService.getProductsByCategory(ProductCategory.PLANTS), id).isPresent());
+        assertFalse(find(productService.getProductsByCategory(ProductCategory.POTS), id).isPresent());
+        assertEquals(4, find(productService.getPlants(), id).orElseThrow().getStock());
+    }
+
+    @Test
+    void readsAfterADeleteNoLongerFindTheProduct() {
+        Product product = testData.createPlantProduct("Cache Deleted Fern", 10);
+        Long id = product.getId();
+        readAll(id, product.getCategory());
+
+        productService.deleteProduct(id);
+
+        assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(id));
+        assertFalse(find(productService.getProductsByCategory(ProductCategory.PLANTS), id).isPresent());
+        assertFalse(find(productService.getPlants(), id).isPresent());
+    }
+
+    @Test
+    void readsAfterOrdersSeeTheirStockChanges() {
+        Product product = testData.createPlantProduct("Cache Order Fern", 10);
+        Long id = product.getId();
+        User user = testData.createUser("cache-orders");
+        readAll(id, product.getCategory());
+
+        OrderDTO order = orderService.createOrder(orderDTO(user, product, 3, 0));
+        assertEquals(7, productService.getProductById(id).getStock());
+        assertEquals(7, find(productService.getProductsByCategory(ProductCategory.PLANTS), id).orElseThrow().getStock());
+        assertEquals(7, find(productService.getPlants(), id).orElseThrow().getStock());
+
+        // The stock is restored by the cancellation event
+        orderService.cancelOrder(order.getId());
+        orderOutbox.dispatchPending();
+        assertEquals(10, productService.getProductById(id).getStock());
+        assertEquals(10, find(productService.getPlants(), id).orElseThrow().getStock());
+    }
+
+    @Test
+    void readsAfterARollbackDoNotSeeTheDiscardedChange() {
+        Product product = testData.createPlantProduct("Cache Rollback Fern", 10);
+        Long id = product.getId();
+        readAll(id, product.getCategory());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Product row = productRepository.findById(id).orElseThrow();
+            row.setStock(3);
+            productService.evictProducts(List.of(row));
+            // Reads inside the transaction cache the uncommitted row
+            assertEquals(3, productService.getProductById(id).getStock());
+            assertEquals(3, find(productService.getPlants(), id).orElseThrow().getStock());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(10, productService.getProductById(id).getStock());
+        assertEquals(10, find(productService.getProductsByCategory(ProductCategory.PLANTS), id).orElseThrow().getStock());
+        assertEquals(10, find(productService.getPlants(), id).orElseThrow().getStock());
+    }
+
+    // Fills all product caches with the product
+    private void readAll(Long id, ProductCategory category) {
+        productService.getProductById(id);
+        productService.getProductsByCategory(category);
+        productService.getPlants();
+    }
+
+    private static Optional<ProductDTO> find(List<ProductDTO> products, Long id) {
+        return products.stream().filter(product -> product.getId().equals(id)).findFirst();
+    }
+}
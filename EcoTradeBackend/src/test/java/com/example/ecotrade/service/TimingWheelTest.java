@@ -0,0 +1,86 @@
+package com.example.ecotrade.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void keysExpireOnTheirDeadlineAfterRandomUpdates() {
+        Random random = new Random(42);
+        long start = 20_000;
+        TimingWheel wheel = new TimingWheel(start);
+        Map<Long, Long> expected = new HashMap<>();
+
+        // Deadlines up to 100k ticks out cover every level of the wheel
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(10) == 0) {
+                wheel.cancel(key);
+                expected.remove(key);
+            } else {
+                long deadline = start + 1 + (random.nextBoolean() ? random.nextInt(200) : random.nextInt(100_000));
+                wheel.schedule(key, deadline);
+                expected.put(key, deadline);
+            }
+        }
+        assertEquals(expected.size(), wheel.size());
+
+        Map<Long, Long> fired = new HashMap<>();
+        long tick = start;
+        while (tick < start + 100_001) {
+            // Uneven steps, several ticks are passed in one call
+            tick += 1 + random.nextInt(300);
+            for (long key : wheel.advanceTo(tick)) {
+                fired.put(key, tick);
+            }
+            for (Map.Entry<Long, Long> entry : fired.entrySet()) {
+                long deadline = expected.get(entry.getKey());
+                assertTrue(deadline <= entry.getValue() && deadline > entry.getValue() - 301);
+            }
+        }
+        assertEquals(expected.keySet(), fired.keySet());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advancingOneTickAtATimeFiresExactlyOnTheDeadline() {
+        TimingWheel wheel = new TimingWheel(100);
+        long[] deadlines = { 101, 163, 164, 165, 4_195, 4_196, 300_000, 400_000 };
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i, deadlines[i]);
+        }
+        // Rescheduling replaces the previous deadline
+        wheel.schedule(2, 170);
+
+        List<Long> firedAt = new ArrayList<>();
+        for (long tick = 101; tick <= 400_000; tick++) {
+            for (long key : wheel.advanceTo(tick)) {
+                assertEquals(key == 2 ? 170 : deadlines[(int) key], tick);
+                firedAt.add(tick);
+            }
+        }
+        assertEquals(deadlines.length, firedAt.size());
+    }
+
+    @Test
+    void pastDeadlinesAreDueOnTheNextAdvance() {
+        TimingWheel wheel = new TimingWheel(500);
+        wheel.schedule(1, 10);
+        wheel.schedule(2, 500);
+        wheel.schedule(3, 501);
+
+        assertEquals(List.of(1L, 2L), wheel.advanceTo(500));
+        assertEquals(List.of(3L), wheel.advanceTo(501));
+        assertEquals(List.of(), wheel.advanceTo(400));
+        assertEquals(501, wheel.currentTick());
+    }
+}
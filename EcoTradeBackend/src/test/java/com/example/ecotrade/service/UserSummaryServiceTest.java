@@ -0,0 +1,144 @@
+package com.example.ecotrade.service;
+
+import com.example.ecotrade.TestData;
+import com.example.ecotrade.dto.OrderDTO;
+import com.example.ecotrade.dto.OrderItemDTO;
+import com.example.ecotrade.dto.PlantDTO;
+import com.example.ecotrade.dto.PlasticSubmissionDTO;
+import com.example.ecotrade.dto.UserSummaryDTO;
+import com.example.ecotrade.model.Product;
+import com.example.ecotrade.model.User;
+import com.example.ecotrade.repository.ProductRepository;
+import com.example.ecotrade.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class UserSummaryServiceTest {
+
+    @Autowired
+    private UserSummaryService userSummaryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private PlasticSubmissionService plasticSubmissionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void writePathsKeepTheSummaryEqualToARecomputation() {
+        User user = testData.createUser("summary-user");
+        Product fern = createProduct("Summary fern", true);
+        Product pot = createProduct("Summary pot", false);
+
+        orderService.createOrder(createOrderDTO(user, 30.0, fern, 2, pot, 1));
+        OrderDTO cancelled = orderService.createOrder(createOrderDTO(user, 12.5, pot, 1, pot, 1));
+        orderService.cancelOrder(cancelled.getId());
+        orderOutbox.dispatchPending();
+
+        List<PlantDTO> orderPlants = plantService.getPlantsFromUserOrders(user.getId());
+        plantService.deletePlant(orderPlants.get(0).getId());
+        PlantDTO manual = new PlantDTO();
+        manual.setUserId(user.getId());
+        manual.setProductId(fern.getId());
+        manual.setName("Balcony fern");
+        manual.setSpecies("Nephrolepis exaltata");
+        manual.setGrowthStage("Mature Plant");
+        plantService.createPlant(manual);
+
+        PlasticSubmissionDTO first = plasticSubmissionService.createSubmission(createSubmissionDTO(user, 2.0));
+        PlasticSubmissionDTO second = plasticSubmissionService.createSubmission(createSubmissionDTO(user, 1.5));
+        PlasticSubmissionDTO third = plasticSubmissionService.createSubmission(createSubmissionDTO(user, 4.0));
+        plasticSubmissionService.verifySubmission(first.getId(), "ok");
+        plasticSubmissionService.verifySubmissions(List.of(second.getId(), third.getId()), "ok");
+        plasticSubmissionService.rejectSubmission(third.getId(), "Not plastic");
+
+        UserSummaryDTO summary = userSummaryService.getSummary(user.getId());
+        assertEquals(1, summary.getOrderCount());
+        assertEquals(30.0, summary.getLifetimeSpend(), 1e-9);
+        assertEquals(2, summary.getPlantCount());
+        assertEquals(Map.of("Mature Plant", 1L, "Seedling", 1L), summary.getPlantsByGrowthStage());
+        assertEquals(3.5, summary.getVerifiedPlasticKg(), 1e-9);
+        assertEquals(userRepository.findEcoPointsById(user.getId()).orElseThrow(), summary.getEcoPoints());
+
+        userSummaryService.rebuildAll();
+        UserSummaryDTO rebuilt = userSummaryService.getSummary(user.getId());
+        assertEquals(summary.getOrderCount(), rebuilt.getOrderCount());
+        assertEquals(summary.getLifetimeSpend(), rebuilt.getLifetimeSpend(), 1e-9);
+        assertEquals(summary.getPlantsByGrowthStage(), rebuilt.getPlantsByGrowthStage());
+        assertEquals(summary.getVerifiedPlasticKg(), rebuilt.getVerifiedPlasticKg(), 1e-9);
+    }
+
+    @Test
+    void userWithoutActivityHasAnEmptySummary() {
+        User user = testData.createUser("summary-idle");
+
+        UserSummaryDTO summary = userSummaryService.getSummary(user.getId());
+
+        assertEquals(0, summary.getOrderCount());
+        assertEquals(0, summary.getPlantCount());
+        assertEquals(Map.of(), summary.getPlantsByGrowthStage());
+        assertEquals(0.0, summary.getVerifiedPlasticKg());
+    }
+
+    private Product createProduct(String name, boolean isPlant) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name);
+        product.setPrice(10.0);
+        product.setStock(100);
+        product.setCategory(isPlant ? Product.ProductCategory.PLANTS : Product.ProductCategory.POTS);
+        product.setIsPlant(isPlant);
+        return productRepository.save(product);
+    }
+
+    private OrderDTO createOrderDTO(User user, double total, Product first, int firstQuantity,
+                                    Product second, int secondQuantity) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setUserId(user.getId());
+        orderDTO.setTotalAmount(total);
+        orderDTO.setEcoPointsEarned(0);
+        orderDTO.setEcoPointsUsed(0);
+        orderDTO.setUsePlastic(false);
+        orderDTO.getItems().add(createItem(first, firstQuantity));
+        orderDTO.getItems().add(createItem(second, secondQuantity));
+        return orderDTO;
+    }
+
+    private OrderItemDTO createItem(Product product, int quantity) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        item.setPrice(product.getPrice());
+        return item;
+    }
+
+    private PlasticSubmissionDTO createSubmissionDTO(User user, double weight) {
+        PlasticSubmissionDTO dto = new PlasticSubmissionDTO();
+        dto.setUserId(user.getId());
+        dto.setWeight(weight);
+        dto.setPlasticType("PET");
+        return dto;
+    }
+}